@@ -0,0 +1,54 @@
+package ru.isin.loadtest.filesystem;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import ru.isin.loadtest.filesystem.properties.LoadTestProperties;
+import ru.isin.loadtest.filesystem.service.LoadGenerator;
+import ru.isin.starter.filesystem.service.StorageService;
+
+/**
+ * Нагрузочный тест сервиса сохранения файлов.
+ * <p>
+ * Сервис сохранения настраивается параметрами isin.filesystem, как в приложении,
+ * нагрузка — параметрами isin.loadtest. После теста приложение завершается
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+@SpringBootApplication
+@EnableConfigurationProperties(LoadTestProperties.class)
+public class LoadTestApplication implements ApplicationRunner {
+	private final LoadTestProperties loadTestProperties;
+	private final StorageService storageService;
+
+	/**
+	 * Констуктор.
+	 *
+	 * @param loadTestProperties параметры нагрузочного теста
+	 * @param storageService     нагружаемый сервис сохранения файлов
+	 */
+	public LoadTestApplication(LoadTestProperties loadTestProperties, StorageService storageService) {
+		this.loadTestProperties = loadTestProperties;
+		this.storageService = storageService;
+	}
+
+	/**
+	 * Запуск нагрузочного теста.
+	 *
+	 * @param args аргументы командной строки, например --isin.loadtest.threads=64
+	 */
+	public static void main(String[] args) {
+		System.exit(SpringApplication.exit(SpringApplication.run(LoadTestApplication.class, args)));
+	}
+
+	/**
+	 * {@inheritDoc}.
+	 */
+	@Override
+	public void run(ApplicationArguments args) throws Exception {
+		new LoadGenerator(loadTestProperties, storageService).run();
+	}
+}
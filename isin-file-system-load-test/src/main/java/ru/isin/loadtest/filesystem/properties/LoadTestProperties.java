@@ -0,0 +1,227 @@
+package ru.isin.loadtest.filesystem.properties;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Параметры нагрузочного теста сервиса сохранения файлов.
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+@Getter
+@ConstructorBinding
+@ConfigurationProperties(prefix = "isin.loadtest")
+public class LoadTestProperties {
+	private static final String DEFAULT_DURATION = "1m";
+	private static final String DEFAULT_WARMUP = "10s";
+	private static final String DEFAULT_REPORT_INTERVAL = "1s";
+	private static final String DEFAULT_REPORT_FILE = "load-test-report.csv";
+	private static final String DEFAULT_THREADS = "16";
+	private static final String DEFAULT_VIRTUAL_THREADS = "false";
+	private static final String DEFAULT_TARGET_RATE = "0";
+	private static final String DEFAULT_KEYS = "10000";
+	private static final String DEFAULT_ZIPF_EXPONENT = "0.99";
+	private static final String DEFAULT_APPEND_SIZE = "4KB";
+	private static final String DEFAULT_PRELOAD = "true";
+	private static final String DEFAULT_CLEANUP = "true";
+	private static final String DEFAULT_READ_WEIGHT = "70";
+	private static final String DEFAULT_WRITE_WEIGHT = "10";
+	private static final String DEFAULT_UPDATE_WEIGHT = "10";
+	private static final String DEFAULT_APPEND_WEIGHT = "5";
+	private static final String DEFAULT_DELETE_WEIGHT = "5";
+
+	/**
+	 * Время измерения без учёта прогрева.
+	 */
+	private final Duration duration;
+
+	/**
+	 * Время прогрева, за которое задержки не учитываются.
+	 */
+	private final Duration warmup;
+
+	/**
+	 * Интервал, за который в отчёт записываются пропускная способность и задержки.
+	 */
+	private final Duration reportInterval;
+
+	/**
+	 * Файл отчёта в формате CSV.
+	 */
+	private final Path reportFile;
+
+	/**
+	 * Количество потоков, выполняющих операции.
+	 */
+	private final int threads;
+
+	/**
+	 * Признак выполнения операций в виртуальных потоках, требует Java 21.
+	 */
+	private final boolean virtualThreads;
+
+	/**
+	 * Общее количество операций в секунду или 0, чтобы выполнять операции без пауз.
+	 * При заданной частоте задержка отсчитывается от запланированного начала операции,
+	 * поэтому ожидание перегруженного хранилища не скрывается из распределения задержек
+	 */
+	private final long targetRate;
+
+	/**
+	 * Количество различных файлов.
+	 */
+	private final int keys;
+
+	/**
+	 * Показатель распределения Ципфа для выбора файла, 0 — равномерный выбор.
+	 */
+	private final double zipfExponent;
+
+	/**
+	 * Размер данных, дописываемых одной операцией дозаписи.
+	 */
+	private final DataSize appendSize;
+
+	/**
+	 * Признак сохранения всех файлов перед прогревом.
+	 */
+	private final boolean preload;
+
+	/**
+	 * Признак удаления всех файлов после теста.
+	 */
+	private final boolean cleanup;
+
+	/**
+	 * Соотношение операций.
+	 */
+	private final Mix mix;
+
+	/**
+	 * Распределение размеров сохраняемых файлов.
+	 * Если размеры не указаны, используются 4KB, 64KB, 1MB и 16MB с весами 50, 35, 14 и 1
+	 */
+	private final List<Size> sizes;
+
+	/**
+	 * Веса операций, с которыми они выбираются.
+	 */
+	@Getter
+	public static class Mix {
+		/**
+		 * Вес чтения.
+		 */
+		private final int read;
+
+		/**
+		 * Вес сохранения.
+		 */
+		private final int write;
+
+		/**
+		 * Вес обновления целиком.
+		 */
+		private final int update;
+
+		/**
+		 * Вес дозаписи.
+		 */
+		private final int append;
+
+		/**
+		 * Вес удаления.
+		 */
+		private final int delete;
+
+		/**
+		 * Констуктор.
+		 */
+		public Mix(@DefaultValue(DEFAULT_READ_WEIGHT) int read,
+				   @DefaultValue(DEFAULT_WRITE_WEIGHT) int write,
+				   @DefaultValue(DEFAULT_UPDATE_WEIGHT) int update,
+				   @DefaultValue(DEFAULT_APPEND_WEIGHT) int append,
+				   @DefaultValue(DEFAULT_DELETE_WEIGHT) int delete) {
+			this.read = read;
+			this.write = write;
+			this.update = update;
+			this.append = append;
+			this.delete = delete;
+		}
+	}
+
+	/**
+	 * Размер файла и вес, с которым он выбирается.
+	 */
+	@Getter
+	public static class Size {
+		/**
+		 * Размер файла.
+		 */
+		private final DataSize size;
+
+		/**
+		 * Вес размера.
+		 */
+		private final double weight;
+
+		/**
+		 * Констуктор.
+		 */
+		public Size(DataSize size, double weight) {
+			this.size = size;
+			this.weight = weight;
+		}
+	}
+
+	/**
+	 * Констуктор.
+	 */
+	public LoadTestProperties(@DefaultValue(DEFAULT_DURATION) Duration duration,
+							  @DefaultValue(DEFAULT_WARMUP) Duration warmup,
+							  @DefaultValue(DEFAULT_REPORT_INTERVAL) Duration reportInterval,
+							  @DefaultValue(DEFAULT_REPORT_FILE) String reportFile,
+							  @DefaultValue(DEFAULT_THREADS) int threads,
+							  @DefaultValue(DEFAULT_VIRTUAL_THREADS) boolean virtualThreads,
+							  @DefaultValue(DEFAULT_TARGET_RATE) long targetRate,
+							  @DefaultValue(DEFAULT_KEYS) int keys,
+							  @DefaultValue(DEFAULT_ZIPF_EXPONENT) double zipfExponent,
+							  @DefaultValue(DEFAULT_APPEND_SIZE) DataSize appendSize,
+							  @DefaultValue(DEFAULT_PRELOAD) boolean preload,
+							  @DefaultValue(DEFAULT_CLEANUP) boolean cleanup,
+							  Mix mix,
+							  List<Size> sizes) {
+		this.duration = duration;
+		this.warmup = warmup;
+		this.reportInterval = reportInterval;
+		this.reportFile = Paths.get(reportFile);
+		this.threads = threads;
+		this.virtualThreads = virtualThreads;
+		this.targetRate = targetRate;
+		this.keys = keys;
+		this.zipfExponent = zipfExponent;
+		this.appendSize = appendSize;
+		this.preload = preload;
+		this.cleanup = cleanup;
+		this.mix = mix == null ? new Mix(
+				Integer.parseInt(DEFAULT_READ_WEIGHT),
+				Integer.parseInt(DEFAULT_WRITE_WEIGHT),
+				Integer.parseInt(DEFAULT_UPDATE_WEIGHT),
+				Integer.parseInt(DEFAULT_APPEND_WEIGHT),
+				Integer.parseInt(DEFAULT_DELETE_WEIGHT)) : mix;
+		this.sizes = sizes == null || sizes.isEmpty() ?
+				List.of(new Size(DataSize.ofKilobytes(4), 50),
+						new Size(DataSize.ofKilobytes(64), 35),
+						new Size(DataSize.ofMegabytes(1), 14),
+						new Size(DataSize.ofMegabytes(16), 1)) :
+				List.copyOf(sizes);
+	}
+}
@@ -0,0 +1,153 @@
+package ru.isin.loadtest.filesystem.service;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Сбор задержек операций по интервалам и за всё время измерения.
+ * <p>
+ * Задержки записываются в {@link Recorder} без блокировок, поэтому запись из множества потоков
+ * не создаёт конкуренции, которая исказила бы измеряемые задержки
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+public class LatencyRecorder {
+	private static final int SIGNIFICANT_DIGITS = 3;
+
+	private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+
+	/**
+	 * Результат операции.
+	 */
+	public enum Outcome {
+		/**
+		 * Операция выполнена.
+		 */
+		OK,
+
+		/**
+		 * Файл не найден, например, удалён другим потоком.
+		 */
+		MISS,
+
+		/**
+		 * Операция завершилась ошибкой.
+		 */
+		ERROR
+	}
+
+	/**
+	 * Задержки и количество неудачных операций за интервал или за всё время измерения.
+	 */
+	@Getter
+	@AllArgsConstructor(access = AccessLevel.PRIVATE)
+	public static class Snapshot {
+		/**
+		 * Операция.
+		 */
+		private final Operation operation;
+
+		/**
+		 * Задержки в наносекундах.
+		 */
+		private final Histogram histogram;
+
+		/**
+		 * Количество операций с ненайденным файлом.
+		 */
+		private final long misses;
+
+		/**
+		 * Количество операций, завершившихся ошибкой.
+		 */
+		private final long errors;
+	}
+
+	/**
+	 * Счётчики одной операции.
+	 */
+	private static class Stats {
+		private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+		private final LongAdder misses = new LongAdder();
+		private final LongAdder errors = new LongAdder();
+		private final Histogram total = new Histogram(SIGNIFICANT_DIGITS);
+		private long totalMisses;
+		private long totalErrors;
+	}
+
+	/**
+	 * Констуктор.
+	 */
+	public LatencyRecorder() {
+		for (Operation operation : Operation.values()) {
+			stats.put(operation, new Stats());
+		}
+	}
+
+	/**
+	 * Метод для записи задержки операции.
+	 *
+	 * @param operation операция
+	 * @param latency   задержка в наносекундах
+	 * @param outcome   результат операции
+	 */
+	public void record(Operation operation, long latency, Outcome outcome) {
+		Stats operationStats = stats.get(operation);
+		operationStats.recorder.recordValue(Math.max(0, latency));
+		if (outcome == Outcome.MISS) {
+			operationStats.misses.increment();
+		} else if (outcome == Outcome.ERROR) {
+			operationStats.errors.increment();
+		}
+	}
+
+	/**
+	 * Метод для получения задержек, записанных после предыдущего вызова.
+	 * Полученные задержки добавляются к задержкам за всё время измерения.
+	 *
+	 * @return задержки операций, выполнявшихся за интервал
+	 */
+	public synchronized List<Snapshot> interval() {
+		List<Snapshot> snapshots = new ArrayList<>();
+		for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+			Stats operationStats = entry.getValue();
+			Histogram histogram = operationStats.recorder.getIntervalHistogram();
+			long misses = operationStats.misses.sumThenReset();
+			long errors = operationStats.errors.sumThenReset();
+			operationStats.total.add(histogram);
+			operationStats.totalMisses += misses;
+			operationStats.totalErrors += errors;
+			if (histogram.getTotalCount() > 0) {
+				snapshots.add(new Snapshot(entry.getKey(), histogram, misses, errors));
+			}
+		}
+		return snapshots;
+	}
+
+	/**
+	 * Метод для получения задержек за всё время измерения.
+	 *
+	 * @return задержки выполнявшихся операций
+	 */
+	public synchronized List<Snapshot> total() {
+		List<Snapshot> snapshots = new ArrayList<>();
+		for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+			Stats operationStats = entry.getValue();
+			if (operationStats.total.getTotalCount() > 0) {
+				snapshots.add(new Snapshot(entry.getKey(), operationStats.total.copy(),
+						operationStats.totalMisses, operationStats.totalErrors));
+			}
+		}
+		return snapshots;
+	}
+}
@@ -0,0 +1,326 @@
+package ru.isin.loadtest.filesystem.service;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.isin.loadtest.filesystem.properties.LoadTestProperties;
+import ru.isin.loadtest.filesystem.service.distribution.WeightedSampler;
+import ru.isin.loadtest.filesystem.service.distribution.ZipfGenerator;
+import ru.isin.starter.filesystem.service.StorageService;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Генератор смешанной нагрузки на сервис сохранения файлов.
+ * <p>
+ * Каждый поток выбирает операцию по соотношению операций, файл — по распределению Ципфа, размер сохраняемых
+ * данных — по распределению размеров, и записывает задержку операции. После прогрева задержки и пропускная
+ * способность записываются в отчёт по интервалам, а в конце теста — за всё время измерения.
+ * Если задана частота операций, каждый поток выполняет операции по расписанию и задержка отсчитывается
+ * от запланированного начала, иначе потоки выполняют операции без пауз
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+@Slf4j
+public class LoadGenerator {
+	private static final String THREAD_NAME = "isin-load-";
+	private static final String FILE_NAME_PREFIX = "load-";
+	private static final String FILE_NAME_SUFFIX = ".bin";
+	private static final String CONTENT_TYPE = "application/octet-stream";
+	private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	private final LoadTestProperties loadTestProperties;
+	private final StorageService storageService;
+	private final LatencyRecorder latencyRecorder = new LatencyRecorder();
+	private final WeightedSampler<Operation> operations = new WeightedSampler<>();
+	private final WeightedSampler<Content> contents = new WeightedSampler<>();
+	private final ZipfGenerator keys;
+	private final AtomicBoolean errorReported = new AtomicBoolean();
+	private byte[] appended;
+
+	/**
+	 * Данные одного размера: массив для сохранения и файл для обновления.
+	 */
+	private static class Content {
+		private final byte[] data;
+		private final Path file;
+
+		private Content(byte[] data, Path file) {
+			this.data = data;
+			this.file = file;
+		}
+	}
+
+	/**
+	 * Констуктор.
+	 *
+	 * @param loadTestProperties параметры нагрузочного теста
+	 * @param storageService     нагружаемый сервис сохранения файлов
+	 */
+	public LoadGenerator(LoadTestProperties loadTestProperties, StorageService storageService) {
+		this.loadTestProperties = loadTestProperties;
+		this.storageService = storageService;
+		this.keys = new ZipfGenerator(loadTestProperties.getKeys(), loadTestProperties.getZipfExponent());
+		LoadTestProperties.Mix mix = loadTestProperties.getMix();
+		operations.add(Operation.READ, mix.getRead()).
+				add(Operation.WRITE, mix.getWrite()).
+				add(Operation.UPDATE, mix.getUpdate()).
+				add(Operation.APPEND, mix.getAppend()).
+				add(Operation.DELETE, mix.getDelete());
+		if (loadTestProperties.getThreads() <= 0) {
+			throw new IllegalArgumentException("Thread count must be positive: " + loadTestProperties.getThreads());
+		}
+	}
+
+	/**
+	 * Метод для выполнения нагрузочного теста.
+	 *
+	 * @return задержки операций за всё время измерения
+	 * @throws IOException          в случае ошибки подготовки данных или записи отчёта
+	 * @throws InterruptedException если поток прерван во время теста
+	 */
+	public List<LatencyRecorder.Snapshot> run() throws IOException, InterruptedException {
+		Path contentDirectory = Files.createTempDirectory("isin-load-test");
+		ExecutorService executor = createExecutor();
+		try (ReportWriter reportWriter = new ReportWriter(loadTestProperties.getReportFile())) {
+			prepareContents(contentDirectory);
+			if (loadTestProperties.isPreload()) {
+				preload(executor);
+			}
+
+			long start = System.nanoTime();
+			long measureStart = start + loadTestProperties.getWarmup().toNanos();
+			long end = measureStart + loadTestProperties.getDuration().toNanos();
+			List<Future<?>> workers = new ArrayList<>();
+			for (int i = 0; i < loadTestProperties.getThreads(); i++) {
+				int worker = i;
+				workers.add(executor.submit(() -> work(worker, start, measureStart, end)));
+			}
+			log.info("Load test started: {} threads, warmup {}, duration {}", loadTestProperties.getThreads(),
+					loadTestProperties.getWarmup(), loadTestProperties.getDuration());
+
+			sleepUntil(measureStart);
+			latencyRecorder.interval();
+			long intervalStart = measureStart;
+			long interval = Math.max(1, loadTestProperties.getReportInterval().toNanos());
+			while (intervalStart - end < 0) {
+				long intervalEnd = Math.min(intervalStart + interval, end);
+				sleepUntil(intervalEnd);
+				reportWriter.writeInterval((intervalEnd - measureStart) / NANOS_PER_SECOND,
+						(intervalEnd - intervalStart) / NANOS_PER_SECOND, latencyRecorder.interval());
+				intervalStart = intervalEnd;
+			}
+			await(workers);
+			latencyRecorder.interval();
+
+			List<LatencyRecorder.Snapshot> total = latencyRecorder.total();
+			reportWriter.writeTotal((end - measureStart) / NANOS_PER_SECOND, total);
+			for (LatencyRecorder.Snapshot snapshot : total) {
+				log.info("{}: {} operations, {} misses, {} errors, p50 {} us, p99 {} us, p999 {} us",
+						snapshot.getOperation(), snapshot.getHistogram().getTotalCount(), snapshot.getMisses(),
+						snapshot.getErrors(), snapshot.getHistogram().getValueAtPercentile(50) / 1000,
+						snapshot.getHistogram().getValueAtPercentile(99) / 1000,
+						snapshot.getHistogram().getValueAtPercentile(99.9) / 1000);
+			}
+			log.info("Load test report is written to {}", loadTestProperties.getReportFile().toAbsolutePath());
+			return total;
+		} finally {
+			executor.shutdownNow();
+			if (loadTestProperties.isCleanup()) {
+				cleanup();
+			}
+			for (Content content : contents.getValues()) {
+				Files.deleteIfExists(content.file);
+			}
+			Files.deleteIfExists(contentDirectory);
+		}
+	}
+
+	/**
+	 * Создание потоков, выполняющих операции.
+	 * Виртуальные потоки создаются через отражение, поскольку библиотека собирается для Java 11.
+	 */
+	private ExecutorService createExecutor() {
+		if (loadTestProperties.isVirtualThreads()) {
+			try {
+				return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+			} catch (NoSuchMethodException e) {
+				throw new IllegalStateException("Virtual threads require Java 21 or later", e);
+			} catch (ReflectiveOperationException e) {
+				throw new IllegalStateException("Unable to create virtual thread executor", e);
+			}
+		}
+		AtomicInteger counter = new AtomicInteger();
+		return Executors.newFixedThreadPool(loadTestProperties.getThreads(), runnable -> {
+			Thread thread = new Thread(runnable, THREAD_NAME + counter.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Подготовка данных каждого размера.
+	 */
+	private void prepareContents(Path contentDirectory) throws IOException {
+		Random random = new Random();
+		for (LoadTestProperties.Size size : loadTestProperties.getSizes()) {
+			byte[] data = new byte[Math.toIntExact(size.getSize().toBytes())];
+			random.nextBytes(data);
+			Path file = Files.write(contentDirectory.resolve(data.length + FILE_NAME_SUFFIX), data);
+			contents.add(new Content(data, file), size.getWeight());
+		}
+		appended = new byte[Math.toIntExact(loadTestProperties.getAppendSize().toBytes())];
+		random.nextBytes(appended);
+	}
+
+	/**
+	 * Сохранение всех файлов перед прогревом.
+	 */
+	private void preload(ExecutorService executor) throws IOException, InterruptedException {
+		int threads = loadTestProperties.getThreads();
+		List<Future<?>> loaders = new ArrayList<>();
+		for (int i = 0; i < threads; i++) {
+			int first = i;
+			loaders.add(executor.submit(() -> {
+				for (int key = first; key < loadTestProperties.getKeys(); key += threads) {
+					execute(Operation.WRITE, key, ThreadLocalRandom.current());
+				}
+			}));
+		}
+		await(loaders);
+		log.info("{} files preloaded", loadTestProperties.getKeys());
+	}
+
+	/**
+	 * Выполнение операций одним потоком до окончания теста.
+	 */
+	private void work(int worker, long start, long measureStart, long end) {
+		Random random = ThreadLocalRandom.current();
+		long period = loadTestProperties.getTargetRate() > 0 ?
+				Math.round(NANOS_PER_SECOND * loadTestProperties.getThreads() / loadTestProperties.getTargetRate()) :
+				0;
+		long intended = start + period * worker / loadTestProperties.getThreads();
+		while (!Thread.currentThread().isInterrupted()) {
+			long begin;
+			if (period > 0) {
+				for (long delay; (delay = intended - System.nanoTime()) > 0; ) {
+					LockSupport.parkNanos(delay);
+				}
+				begin = intended;
+				intended += period;
+			} else {
+				begin = System.nanoTime();
+			}
+			if (begin - end >= 0) {
+				return;
+			}
+			Operation operation = operations.next(random);
+			LatencyRecorder.Outcome outcome = execute(operation, keys.next(random), random);
+			if (begin - measureStart >= 0) {
+				latencyRecorder.record(operation, System.nanoTime() - begin, outcome);
+			}
+		}
+	}
+
+	/**
+	 * Выполнение одной операции над файлом.
+	 */
+	private LatencyRecorder.Outcome execute(Operation operation, int key, Random random) {
+		String fileName = FILE_NAME_PREFIX + key + FILE_NAME_SUFFIX;
+		try {
+			switch (operation) {
+				case READ:
+					storageService.read(Paths.get(fileName));
+					break;
+				case WRITE:
+					// Сохранение существующего файла только проверяет его наличие, поэтому файл сначала удаляется
+					deleteIfExists(Paths.get(fileName));
+					storageService.save(new ByteArrayInputStream(contents.next(random).data), fileName, CONTENT_TYPE);
+					break;
+				case UPDATE:
+					storageService.update(Paths.get(fileName), contents.next(random).file);
+					break;
+				case APPEND:
+					storageService.append(Paths.get(fileName), new ByteArrayInputStream(appended));
+					break;
+				case DELETE:
+					storageService.delete(Paths.get(fileName));
+					break;
+				default:
+					throw new IllegalArgumentException("Unknown operation " + operation);
+			}
+			return LatencyRecorder.Outcome.OK;
+		} catch (NoSuchFileException | FileNotFoundException e) {
+			return LatencyRecorder.Outcome.MISS;
+		} catch (IOException | RuntimeException e) {
+			if (errorReported.compareAndSet(false, true)) {
+				log.warn("Operation {} on {} failed, further errors are only counted", operation, fileName, e);
+			}
+			return LatencyRecorder.Outcome.ERROR;
+		}
+	}
+
+	/**
+	 * Удаление файла, если он сохранён.
+	 */
+	private void deleteIfExists(Path fileName) throws IOException {
+		try {
+			storageService.delete(fileName);
+		} catch (NoSuchFileException | FileNotFoundException e) {
+			// Файл ещё не сохранён или удалён другим потоком
+		}
+	}
+
+	/**
+	 * Удаление сохранённых тестом файлов.
+	 */
+	private void cleanup() {
+		for (int key = 0; key < loadTestProperties.getKeys(); key++) {
+			execute(Operation.DELETE, key, ThreadLocalRandom.current());
+		}
+		try {
+			storageService.clear();
+		} catch (IOException e) {
+			log.error("Unable to remove empty directories: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * Ожидание завершения задач.
+	 */
+	private static void await(List<Future<?>> futures) throws IOException, InterruptedException {
+		for (Future<?> future : futures) {
+			try {
+				future.get();
+			} catch (ExecutionException e) {
+				throw new IOException("Load test task failed: " + e.getCause().getMessage(), e.getCause());
+			}
+		}
+	}
+
+	/**
+	 * Ожидание наступления момента времени.
+	 */
+	private static void sleepUntil(long deadline) throws InterruptedException {
+		for (long delay; (delay = deadline - System.nanoTime()) > 0; ) {
+			TimeUnit.NANOSECONDS.sleep(delay);
+		}
+	}
+}
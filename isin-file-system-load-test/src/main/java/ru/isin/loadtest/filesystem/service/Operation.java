@@ -0,0 +1,34 @@
+package ru.isin.loadtest.filesystem.service;
+
+/**
+ * Операции нагрузочного теста.
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+public enum Operation {
+	/**
+	 * Чтение файла.
+	 */
+	READ,
+
+	/**
+	 * Сохранение файла. Сохранённый ранее файл удаляется, чтобы сохранение записывало данные.
+	 */
+	WRITE,
+
+	/**
+	 * Обновление файла целиком.
+	 */
+	UPDATE,
+
+	/**
+	 * Дозапись в конец файла.
+	 */
+	APPEND,
+
+	/**
+	 * Удаление файла.
+	 */
+	DELETE
+}
@@ -0,0 +1,101 @@
+package ru.isin.loadtest.filesystem.service;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Запись отчёта нагрузочного теста в формате CSV.
+ * <p>
+ * Для каждого интервала и каждой выполнявшейся операции записывается строка с пропускной способностью
+ * и перцентилями задержек в микросекундах, в конце отчёта — строки за всё время измерения с меткой total
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+public class ReportWriter implements Closeable {
+	private static final String HEADER =
+			"elapsed_s,operation,count,ops_per_s,misses,errors,p50_us,p99_us,p999_us,max_us";
+	private static final String TOTAL_LABEL = "total";
+	private static final double NANOS_PER_MICRO = 1000.0;
+
+	private final BufferedWriter writer;
+
+	/**
+	 * Констуктор.
+	 *
+	 * @param reportFile файл отчёта, существующий файл перезаписывается
+	 * @throws IOException в случае ошибки создания файла
+	 */
+	public ReportWriter(Path reportFile) throws IOException {
+		Path parent = reportFile.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		writer = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8);
+		writer.write(HEADER);
+		writer.newLine();
+	}
+
+	/**
+	 * Метод для записи задержек за интервал.
+	 *
+	 * @param elapsed   время от начала измерения до конца интервала в секундах
+	 * @param length    длительность интервала в секундах
+	 * @param snapshots задержки операций за интервал
+	 * @throws IOException в случае ошибки записи
+	 */
+	public void writeInterval(double elapsed, double length, List<LatencyRecorder.Snapshot> snapshots)
+			throws IOException {
+		write(String.format(Locale.ROOT, "%.3f", elapsed), length, snapshots);
+		writer.flush();
+	}
+
+	/**
+	 * Метод для записи задержек за всё время измерения.
+	 *
+	 * @param length    длительность измерения в секундах
+	 * @param snapshots задержки операций за всё время измерения
+	 * @throws IOException в случае ошибки записи
+	 */
+	public void writeTotal(double length, List<LatencyRecorder.Snapshot> snapshots) throws IOException {
+		write(TOTAL_LABEL, length, snapshots);
+		writer.flush();
+	}
+
+	/**
+	 * Закрытие файла отчёта.
+	 */
+	@Override
+	public void close() throws IOException {
+		writer.close();
+	}
+
+	/**
+	 * Запись строк операций с общей меткой.
+	 */
+	private void write(String label, double length, List<LatencyRecorder.Snapshot> snapshots) throws IOException {
+		for (LatencyRecorder.Snapshot snapshot : snapshots) {
+			Histogram histogram = snapshot.getHistogram();
+			writer.write(String.format(Locale.ROOT, "%s,%s,%d,%.1f,%d,%d,%.1f,%.1f,%.1f,%.1f",
+					label,
+					snapshot.getOperation().name().toLowerCase(Locale.ROOT),
+					histogram.getTotalCount(),
+					length > 0 ? histogram.getTotalCount() / length : 0,
+					snapshot.getMisses(),
+					snapshot.getErrors(),
+					histogram.getValueAtPercentile(50) / NANOS_PER_MICRO,
+					histogram.getValueAtPercentile(99) / NANOS_PER_MICRO,
+					histogram.getValueAtPercentile(99.9) / NANOS_PER_MICRO,
+					histogram.getMaxValue() / NANOS_PER_MICRO));
+			writer.newLine();
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package ru.isin.loadtest.filesystem.service.distribution;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Выбор значения с вероятностью, пропорциональной его весу.
+ *
+ * @param <T> тип значений
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+public class WeightedSampler<T> {
+	private final List<T> values = new ArrayList<>();
+	private double[] distribution = new double[0];
+	private double total;
+
+	/**
+	 * Метод для добавления значения. Значения с нулевым весом не выбираются.
+	 *
+	 * @param value  значение
+	 * @param weight вес значения
+	 * @return этот же объект
+	 */
+	public WeightedSampler<T> add(T value, double weight) {
+		if (weight < 0) {
+			throw new IllegalArgumentException("Weight of " + value + " must not be negative: " + weight);
+		}
+		if (weight > 0) {
+			total += weight;
+			values.add(value);
+			distribution = Arrays.copyOf(distribution, values.size());
+			distribution[values.size() - 1] = total;
+		}
+		return this;
+	}
+
+	/**
+	 * Метод для получения добавленных значений с ненулевым весом.
+	 *
+	 * @return значения в порядке добавления
+	 */
+	public List<T> getValues() {
+		return values;
+	}
+
+	/**
+	 * Метод для выбора значения.
+	 *
+	 * @param random генератор случайных чисел
+	 * @return выбранное значение
+	 * @throws IllegalStateException если не добавлено ни одного значения с ненулевым весом
+	 */
+	public T next(Random random) {
+		if (values.isEmpty()) {
+			throw new IllegalStateException("No values with positive weight");
+		}
+		int index = Arrays.binarySearch(distribution, random.nextDouble() * total);
+		return values.get(Math.min(index < 0 ? -index - 1 : index + 1, values.size() - 1));
+	}
+}
@@ -0,0 +1,52 @@
+package ru.isin.loadtest.filesystem.service.distribution;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Выбор номера файла по распределению Ципфа: вероятность номера k пропорциональна 1 / (k + 1)^s.
+ * <p>
+ * Функция распределения вычисляется один раз, выбор выполняется двоичным поиском по ней,
+ * поэтому стоимость выбора не зависит от показателя распределения
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+public class ZipfGenerator {
+	private final double[] distribution;
+
+	/**
+	 * Констуктор.
+	 *
+	 * @param size     количество номеров
+	 * @param exponent показатель распределения, 0 соответствует равномерному выбору
+	 */
+	public ZipfGenerator(int size, double exponent) {
+		if (size <= 0) {
+			throw new IllegalArgumentException("Zipf distribution size must be positive: " + size);
+		}
+		if (exponent < 0) {
+			throw new IllegalArgumentException("Zipf exponent must not be negative: " + exponent);
+		}
+		distribution = new double[size];
+		double sum = 0;
+		for (int k = 0; k < size; k++) {
+			sum += 1 / Math.pow(k + 1, exponent);
+			distribution[k] = sum;
+		}
+		for (int k = 0; k < size; k++) {
+			distribution[k] /= sum;
+		}
+	}
+
+	/**
+	 * Метод для выбора номера.
+	 *
+	 * @param random генератор случайных чисел
+	 * @return номер от 0 до size - 1, меньшие номера выбираются чаще
+	 */
+	public int next(Random random) {
+		int index = Arrays.binarySearch(distribution, random.nextDouble());
+		return Math.min(index < 0 ? -index - 1 : index, distribution.length - 1);
+	}
+}
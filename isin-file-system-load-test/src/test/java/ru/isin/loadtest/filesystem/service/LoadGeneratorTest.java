@@ -0,0 +1,81 @@
+package ru.isin.loadtest.filesystem.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+import ru.isin.loadtest.filesystem.properties.LoadTestProperties;
+import ru.isin.starter.filesystem.properties.HashProperties;
+import ru.isin.starter.filesystem.properties.StorageProperties;
+import ru.isin.starter.filesystem.service.HashServiceImpl;
+import ru.isin.starter.filesystem.service.StorageServiceImpl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тестирование работы {@link LoadGenerator}.
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ */
+class LoadGeneratorTest {
+	private static final String ROOT_DIRECTORY = "target/load-test";
+	private static final String FILES_DIRECTORY = ROOT_DIRECTORY + "/files";
+	private static final String REPORT_FILE = ROOT_DIRECTORY + "/report.csv";
+	private static final String HASHING_ALGORITHM = "MD5";
+
+	/**
+	 * Удаление созданных директорий и файлов.
+	 */
+	@AfterEach
+	public void clear() throws IOException {
+		FileSystemUtils.deleteRecursively(Path.of(ROOT_DIRECTORY));
+	}
+
+	/**
+	 * Тестирование короткого теста со всеми операциями и записи отчёта.
+	 */
+	@Test
+	public void testRun() throws Exception {
+		LoadTestProperties loadTestProperties = new LoadTestProperties(
+				Duration.ofSeconds(2),
+				Duration.ofMillis(200),
+				Duration.ofMillis(500),
+				REPORT_FILE,
+				4,
+				false,
+				0,
+				100,
+				0.99,
+				DataSize.ofBytes(100),
+				true,
+				true,
+				new LoadTestProperties.Mix(60, 10, 10, 10, 10),
+				List.of(new LoadTestProperties.Size(DataSize.ofKilobytes(1), 3),
+						new LoadTestProperties.Size(DataSize.ofKilobytes(32), 1)));
+		StorageServiceImpl storageService = new StorageServiceImpl(
+				new HashServiceImpl(new HashProperties(HASHING_ALGORITHM)),
+				new StorageProperties(FILES_DIRECTORY, 2, 2, 5));
+
+		List<LatencyRecorder.Snapshot> total = new LoadGenerator(loadTestProperties, storageService).run();
+
+		assertEquals(Operation.values().length, total.size());
+		for (LatencyRecorder.Snapshot snapshot : total) {
+			assertTrue(snapshot.getHistogram().getTotalCount() > 0);
+		}
+		List<String> report = Files.readAllLines(Path.of(REPORT_FILE));
+		assertTrue(report.get(0).startsWith("elapsed_s,operation"));
+		assertTrue(report.stream().anyMatch(line -> line.startsWith("0.500,read,")));
+		assertEquals(Operation.values().length, report.stream().filter(line -> line.startsWith("total,")).count());
+		try (var files = Files.walk(Path.of(FILES_DIRECTORY))) {
+			assertFalse(files.anyMatch(Files::isRegularFile));
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package ru.isin.loadtest.filesystem.service.distribution;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тестирование работы {@link ZipfGenerator} и {@link WeightedSampler}.
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ */
+class DistributionTest {
+	private static final int SAMPLES = 200_000;
+
+	/**
+	 * Тестирование частот номеров распределения Ципфа.
+	 */
+	@Test
+	public void testZipf() {
+		ZipfGenerator zipf = new ZipfGenerator(1000, 1);
+		Random random = new Random(1);
+		int[] counts = new int[1000];
+		for (int i = 0; i < SAMPLES; i++) {
+			counts[zipf.next(random)]++;
+		}
+		// Вероятность первого номера 1 / H(1000), второго — вдвое меньше
+		double first = 1 / 7.485;
+		assertEquals(first, (double) counts[0] / SAMPLES, 0.01);
+		assertEquals(2, (double) counts[0] / counts[1], 0.15);
+		assertTrue(counts[999] > 0);
+
+		ZipfGenerator uniform = new ZipfGenerator(10, 0);
+		int[] uniformCounts = new int[10];
+		for (int i = 0; i < SAMPLES; i++) {
+			uniformCounts[uniform.next(random)]++;
+		}
+		for (int count : uniformCounts) {
+			assertEquals(0.1, (double) count / SAMPLES, 0.01);
+		}
+	}
+
+	/**
+	 * Тестирование выбора значений по весам.
+	 */
+	@Test
+	public void testWeightedSampler() {
+		WeightedSampler<String> sampler = new WeightedSampler<String>().
+				add("rare", 1).
+				add("never", 0).
+				add("often", 3);
+		Random random = new Random(2);
+		int often = 0;
+		for (int i = 0; i < SAMPLES; i++) {
+			String value = sampler.next(random);
+			assertTrue(!"never".equals(value));
+			if ("often".equals(value)) {
+				often++;
+			}
+		}
+		assertEquals(0.75, (double) often / SAMPLES, 0.01);
+		assertThrows(IllegalStateException.class, () -> new WeightedSampler<String>().next(random));
+	}
+}
@@ -1,16 +1,39 @@
 package ru.isin.starter.filesystem.config;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import ru.isin.starter.filesystem.properties.HashProperties;
+import ru.isin.starter.filesystem.properties.IntegrityProperties;
+import ru.isin.starter.filesystem.properties.PackProperties;
 import ru.isin.starter.filesystem.properties.StorageProperties;
+import ru.isin.starter.filesystem.properties.TieringProperties;
+import ru.isin.starter.filesystem.properties.UploadProperties;
 import ru.isin.starter.filesystem.service.HashService;
 import ru.isin.starter.filesystem.service.HashServiceImpl;
 import ru.isin.starter.filesystem.service.StorageService;
 import ru.isin.starter.filesystem.service.StorageServiceImpl;
+import ru.isin.starter.filesystem.service.content.ContentTypeDetector;
+import ru.isin.starter.filesystem.service.integrity.ChecksumStore;
+import ru.isin.starter.filesystem.service.integrity.IntegrityScrubber;
+import ru.isin.starter.filesystem.service.io.IoScheduler;
+import ru.isin.starter.filesystem.service.layout.FanoutAnalyzer;
+import ru.isin.starter.filesystem.service.layout.LayoutMigrator;
+import ru.isin.starter.filesystem.service.layout.StorageLayout;
+import ru.isin.starter.filesystem.service.lock.FileLocks;
+import ru.isin.starter.filesystem.service.pack.SegmentStore;
+import ru.isin.starter.filesystem.service.tier.TierManager;
+import ru.isin.starter.filesystem.service.upload.UploadManager;
+import ru.isin.starter.filesystem.service.volume.VolumeRebalancer;
+
+import java.io.IOException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 
 /**
  * Конфигурация модуля Filesystem.
@@ -20,22 +43,133 @@ import ru.isin.starter.filesystem.service.StorageServiceImpl;
  */
 @Slf4j
 @Configuration
-@EnableConfigurationProperties(value = {StorageProperties.class, HashProperties.class})
+@EnableConfigurationProperties(value = {
+		StorageProperties.class,
+		HashProperties.class,
+		PackProperties.class,
+		TieringProperties.class,
+		IntegrityProperties.class,
+		UploadProperties.class})
 public class IsinFilesystemStarterConfiguration {
 	private static final String VERSION = "1.0.0";
 
 	/**
 	 * Инициализация bean StorageService.
 	 *
-	 * @param hashService       сервис для вычисления хэш-кодов имён файлов
-	 * @param storageProperties параметры сохранения
+	 * @param hashService         сервис для вычисления хэш-кодов имён файлов
+	 * @param storageProperties   параметры сохранения
+	 * @param segmentStore        хранилище упакованных небольших файлов, если упаковка включена
+	 * @param tierManager         управление уровнями хранилища, если холодный уровень включён
+	 * @param checksumStore       хранение контрольных сумм, если контроль целостности включён
+	 * @param ioScheduler         планировщик ввода-вывода
+	 * @param storageLayout       схемы размещения файлов
+	 * @param contentTypeDetector определение типа содержимого файлов
+	 * @param uploadManager       управление загрузками частями, если загрузка частями включена
+	 * @param fileLocks           блокировки файлов
 	 * @return bean
 	 */
 	@Bean
 	@ConditionalOnClass({HashService.class, StorageProperties.class})
-	public StorageService createStorageService(HashService hashService, StorageProperties storageProperties) {
+	public StorageService createStorageService(HashService hashService,
+											   StorageProperties storageProperties,
+											   ObjectProvider<SegmentStore> segmentStore,
+											   ObjectProvider<TierManager> tierManager,
+											   ObjectProvider<ChecksumStore> checksumStore,
+											   IoScheduler ioScheduler,
+											   StorageLayout storageLayout,
+											   ContentTypeDetector contentTypeDetector,
+											   ObjectProvider<UploadManager> uploadManager,
+											   FileLocks fileLocks) {
 		log.info("ISIN Filesystem Lib {} Initializing Bean: StorageService", VERSION);
-		return new StorageServiceImpl(hashService, storageProperties);
+		return StorageServiceImpl.builder().
+				hashServiceImpl(hashService).
+				storageProperties(storageProperties).
+				segmentStore(segmentStore.getIfAvailable()).
+				tierManager(tierManager.getIfAvailable()).
+				checksumStore(checksumStore.getIfAvailable()).
+				ioScheduler(ioScheduler).
+				storageLayout(storageLayout).
+				contentTypeDetector(contentTypeDetector).
+				uploadManager(uploadManager.getIfAvailable()).
+				fileLocks(fileLocks).
+				build();
+	}
+
+	/**
+	 * Инициализация bean IoScheduler.
+	 *
+	 * @param storageProperties параметры сохранения
+	 * @return bean
+	 */
+	@Bean
+	@ConditionalOnClass({StorageProperties.class})
+	public IoScheduler createIoScheduler(StorageProperties storageProperties) {
+		log.info("ISIN Filesystem Lib {} Initializing Bean: IoScheduler", VERSION);
+		return new IoScheduler(storageProperties.getIo());
+	}
+
+	/**
+	 * Инициализация bean FileLocks.
+	 *
+	 * @return bean
+	 */
+	@Bean
+	public FileLocks createFileLocks() {
+		log.info("ISIN Filesystem Lib {} Initializing Bean: FileLocks", VERSION);
+		return new FileLocks();
+	}
+
+	/**
+	 * Инициализация bean StorageLayout.
+	 *
+	 * @param storageProperties параметры сохранения
+	 * @return bean
+	 */
+	@Bean
+	@ConditionalOnClass({StorageProperties.class})
+	public StorageLayout createStorageLayout(StorageProperties storageProperties) {
+		log.info("ISIN Filesystem Lib {} Initializing Bean: StorageLayout", VERSION);
+		return StorageLayout.of(storageProperties);
+	}
+
+	/**
+	 * Инициализация bean ContentTypeDetector.
+	 *
+	 * @return bean
+	 */
+	@Bean
+	public ContentTypeDetector createContentTypeDetector() {
+		log.info("ISIN Filesystem Lib {} Initializing Bean: ContentTypeDetector", VERSION);
+		return new ContentTypeDetector();
+	}
+
+	/**
+	 * Инициализация bean SegmentStore.
+	 *
+	 * @param packProperties параметры упаковки небольших файлов
+	 * @param ioScheduler    планировщик ввода-вывода
+	 * @return bean
+	 * @throws IOException в случае ошибки открытия сегментов
+	 */
+	@Bean(destroyMethod = "close")
+	@ConditionalOnProperty(prefix = "isin.filesystem.pack", name = "enabled", havingValue = "true")
+	public SegmentStore createSegmentStore(PackProperties packProperties, IoScheduler ioScheduler) throws IOException {
+		log.info("ISIN Filesystem Lib {} Initializing Bean: SegmentStore", VERSION);
+		return new SegmentStore(packProperties, ioScheduler);
+	}
+
+	/**
+	 * Инициализация bean UploadManager.
+	 *
+	 * @param uploadProperties параметры загрузки файлов частями
+	 * @return bean
+	 * @throws IOException в случае ошибки создания директории загрузок
+	 */
+	@Bean(destroyMethod = "close")
+	@ConditionalOnProperty(prefix = "isin.filesystem.upload", name = "enabled", havingValue = "true")
+	public UploadManager createUploadManager(UploadProperties uploadProperties) throws IOException {
+		log.info("ISIN Filesystem Lib {} Initializing Bean: UploadManager", VERSION);
+		return new UploadManager(uploadProperties);
 	}
 
 	/**
@@ -50,4 +184,136 @@ public class IsinFilesystemStarterConfiguration {
 		log.info("ISIN Filesystem Lib {} Initializing Bean: HashService", VERSION);
 		return new HashServiceImpl(hashProperties);
 	}
+
+	/**
+	 * Инициализация bean TierManager.
+	 *
+	 * @param storageProperties параметры сохранения
+	 * @param tieringProperties параметры уровней хранилища
+	 * @param ioScheduler       планировщик ввода-вывода
+	 * @param fileLocks         блокировки файлов
+	 * @return bean
+	 * @throws IOException в случае ошибки чтения директории холодного уровня
+	 */
+	@Bean(destroyMethod = "close")
+	@ConditionalOnProperty(prefix = "isin.filesystem.tiering", name = "enabled", havingValue = "true")
+	public TierManager createTierManager(StorageProperties storageProperties,
+										 TieringProperties tieringProperties,
+										 IoScheduler ioScheduler,
+										 FileLocks fileLocks) throws IOException {
+		log.info("ISIN Filesystem Lib {} Initializing Bean: TierManager", VERSION);
+		return new TierManager(storageProperties, tieringProperties, ioScheduler, fileLocks);
+	}
+
+	/**
+	 * Инициализация bean VolumeRebalancer.
+	 *
+	 * @param storageProperties параметры сохранения
+	 * @param storageService    сервис для сохранения файлов
+	 * @param ioScheduler       планировщик ввода-вывода
+	 * @param fileLocks         блокировки файлов
+	 * @return bean
+	 */
+	@Bean
+	@ConditionalOnClass({StorageProperties.class, StorageService.class})
+	public VolumeRebalancer createVolumeRebalancer(StorageProperties storageProperties,
+												   StorageService storageService,
+												   IoScheduler ioScheduler,
+												   FileLocks fileLocks) {
+		log.info("ISIN Filesystem Lib {} Initializing Bean: VolumeRebalancer", VERSION);
+		return new VolumeRebalancer(storageProperties, storageService, ioScheduler, fileLocks);
+	}
+
+	/**
+	 * Инициализация bean FanoutAnalyzer.
+	 *
+	 * @param storageProperties параметры сохранения
+	 * @param storageLayout     схемы размещения файлов
+	 * @param hashService       сервис для вычисления хэш-кодов имён файлов
+	 * @param ioScheduler       планировщик ввода-вывода
+	 * @return bean
+	 * @throws NoSuchAlgorithmException в случае ошибки вычисления длины хэш-кода
+	 */
+	@Bean
+	@ConditionalOnClass({StorageProperties.class, HashService.class})
+	public FanoutAnalyzer createFanoutAnalyzer(StorageProperties storageProperties,
+											   StorageLayout storageLayout,
+											   HashService hashService,
+											   IoScheduler ioScheduler) throws NoSuchAlgorithmException {
+		log.info("ISIN Filesystem Lib {} Initializing Bean: FanoutAnalyzer", VERSION);
+		return new FanoutAnalyzer(storageProperties, storageLayout, countHashLength(hashService), ioScheduler);
+	}
+
+	/**
+	 * Инициализация bean LayoutMigrator.
+	 *
+	 * @param storageProperties параметры сохранения
+	 * @param storageLayout     схемы размещения файлов
+	 * @param hashService       сервис для вычисления хэш-кодов имён файлов
+	 * @param storageService    сервис для сохранения файлов
+	 * @param tierManager       управление уровнями хранилища, если холодный уровень включён
+	 * @param ioScheduler       планировщик ввода-вывода
+	 * @param fileLocks         блокировки файлов
+	 * @return bean
+	 * @throws NoSuchAlgorithmException в случае ошибки вычисления длины хэш-кода
+	 */
+	@Bean
+	@ConditionalOnClass({StorageProperties.class, HashService.class, StorageService.class})
+	public LayoutMigrator createLayoutMigrator(StorageProperties storageProperties,
+											   StorageLayout storageLayout,
+											   HashService hashService,
+											   StorageService storageService,
+											   ObjectProvider<TierManager> tierManager,
+											   IoScheduler ioScheduler,
+											   FileLocks fileLocks) throws NoSuchAlgorithmException {
+		log.info("ISIN Filesystem Lib {} Initializing Bean: LayoutMigrator", VERSION);
+		return new LayoutMigrator(storageProperties, storageLayout, countHashLength(hashService), storageService,
+				tierManager.getIfAvailable(), ioScheduler, fileLocks);
+	}
+
+	/**
+	 * Инициализация bean ChecksumStore.
+	 *
+	 * @param integrityProperties параметры контроля целостности
+	 * @return bean
+	 */
+	@Bean
+	@ConditionalOnProperty(prefix = "isin.filesystem.integrity", name = "enabled", havingValue = "true")
+	public ChecksumStore createChecksumStore(IntegrityProperties integrityProperties) {
+		log.info("ISIN Filesystem Lib {} Initializing Bean: ChecksumStore", VERSION);
+		return new ChecksumStore(integrityProperties);
+	}
+
+	/**
+	 * Инициализация bean IntegrityScrubber.
+	 *
+	 * @param integrityProperties параметры контроля целостности
+	 * @param checksumStore       хранение контрольных сумм
+	 * @param storageService      сервис для сохранения файлов
+	 * @param segmentStore        хранилище упакованных небольших файлов, если упаковка включена
+	 * @param eventPublisher      получатель событий о повреждённых файлах
+	 * @param ioScheduler         планировщик ввода-вывода
+	 * @param fileLocks           блокировки файлов
+	 * @return bean
+	 */
+	@Bean(destroyMethod = "close")
+	@ConditionalOnProperty(prefix = "isin.filesystem.integrity", name = "enabled", havingValue = "true")
+	public IntegrityScrubber createIntegrityScrubber(IntegrityProperties integrityProperties,
+													 ChecksumStore checksumStore,
+													 StorageService storageService,
+													 ObjectProvider<SegmentStore> segmentStore,
+													 ApplicationEventPublisher eventPublisher,
+													 IoScheduler ioScheduler,
+													 FileLocks fileLocks) {
+		log.info("ISIN Filesystem Lib {} Initializing Bean: IntegrityScrubber", VERSION);
+		return new IntegrityScrubber(integrityProperties, checksumStore, storageService,
+				segmentStore.getIfAvailable(), eventPublisher, ioScheduler, fileLocks);
+	}
+
+	/**
+	 * Вычисление длины хэш-кодов имён файлов в кодировке Base64.
+	 */
+	private static int countHashLength(HashService hashService) throws NoSuchAlgorithmException {
+		return Base64.getEncoder().encodeToString(hashService.hash("")).length();
+	}
 }
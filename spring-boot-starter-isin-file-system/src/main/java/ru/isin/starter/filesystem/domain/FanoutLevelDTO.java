@@ -0,0 +1,45 @@
+package ru.isin.starter.filesystem.domain;
+
+import lombok.*;
+
+/**
+ * ДТО для представления оценки заполненности директорий одного уровня иерархии.
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class FanoutLevelDTO {
+	/**
+	 * Глубина уровня, корневые директории томов находятся на глубине 0.
+	 */
+	private int depth;
+
+	/**
+	 * Количество просмотренных директорий уровня.
+	 */
+	private int sampledDirectories;
+
+	/**
+	 * Оценка общего количества директорий уровня.
+	 */
+	private double estimatedDirectories;
+
+	/**
+	 * Среднее количество записей в директории.
+	 */
+	private double meanEntries;
+
+	/**
+	 * Наибольшее количество записей в просмотренных директориях.
+	 */
+	private long maxEntries;
+
+	/**
+	 * Среднее количество файлов в директории.
+	 */
+	private double meanFiles;
+}
@@ -0,0 +1,37 @@
+package ru.isin.starter.filesystem.domain;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * ДТО для представления результатов анализа заполненности директорий хранилища.
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class FanoutReportDTO {
+	/**
+	 * Оценки по уровням иерархии директорий.
+	 */
+	private List<FanoutLevelDTO> levels;
+
+	/**
+	 * Оценка общего количества файлов.
+	 */
+	private long estimatedFiles;
+
+	/**
+	 * Рекомендуемый уровень вложенности директорий.
+	 */
+	private int recommendedNestingLevel;
+
+	/**
+	 * Рекомендуемая длина имени одной директории.
+	 */
+	private int recommendedNameLength;
+}
@@ -22,9 +22,8 @@ public class FileDTO {
 	private String name;
 
 	/**
-	 * Путь к файлу в файловой системе.
+	 * Путь к файлу в файловой системе или null для файла, упакованного в сегмент.
 	 */
-	@NonNull
 	private Path path;
 
 	/**
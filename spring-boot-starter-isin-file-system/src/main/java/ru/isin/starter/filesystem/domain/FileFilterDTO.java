@@ -0,0 +1,43 @@
+package ru.isin.starter.filesystem.domain;
+
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * ДТО для представления условий отбора сохранённых файлов при их перечислении.
+ * Незаданные условия не применяются.
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class FileFilterDTO {
+	/**
+	 * Начало хэша имени файла (без символов '/').
+	 */
+	private String prefix;
+
+	/**
+	 * Минимальный размер файла.
+	 */
+	private Long minSize;
+
+	/**
+	 * Максимальный размер файла.
+	 */
+	private Long maxSize;
+
+	/**
+	 * Файл должен быть изменён не раньше указанного момента.
+	 */
+	private Instant modifiedAfter;
+
+	/**
+	 * Файл должен быть изменён раньше указанного момента.
+	 */
+	private Instant modifiedBefore;
+}
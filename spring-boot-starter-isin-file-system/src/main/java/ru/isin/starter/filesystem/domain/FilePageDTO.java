@@ -0,0 +1,28 @@
+package ru.isin.starter.filesystem.domain;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * ДТО для представления страницы перечисления сохранённых файлов.
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class FilePageDTO {
+	/**
+	 * Файлы страницы.
+	 */
+	@NonNull
+	private List<FileDTO> files;
+
+	/**
+	 * Курсор для получения следующей страницы или null, если страница последняя.
+	 */
+	private String nextCursor;
+}
@@ -0,0 +1,30 @@
+package ru.isin.starter.filesystem.domain;
+
+import lombok.*;
+
+/**
+ * ДТО для представления результатов перераспределения файлов между томами.
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RebalanceReportDTO {
+	/**
+	 * Количество просмотренных файлов.
+	 */
+	private long scanned;
+
+	/**
+	 * Количество перемещённых файлов.
+	 */
+	private long moved;
+
+	/**
+	 * Количество файлов, которые не удалось переместить.
+	 */
+	private long failed;
+}
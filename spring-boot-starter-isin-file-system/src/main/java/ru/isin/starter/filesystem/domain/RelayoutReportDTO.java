@@ -0,0 +1,30 @@
+package ru.isin.starter.filesystem.domain;
+
+import lombok.*;
+
+/**
+ * ДТО для представления результатов переноса файлов в новую схему размещения.
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RelayoutReportDTO {
+	/**
+	 * Количество просмотренных файлов.
+	 */
+	private long scanned;
+
+	/**
+	 * Количество перенесённых файлов.
+	 */
+	private long moved;
+
+	/**
+	 * Количество файлов, которые не удалось перенести.
+	 */
+	private long failed;
+}
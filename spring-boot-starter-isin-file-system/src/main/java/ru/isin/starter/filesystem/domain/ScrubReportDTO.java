@@ -0,0 +1,40 @@
+package ru.isin.starter.filesystem.domain;
+
+import lombok.*;
+
+/**
+ * ДТО для представления результатов проверки целостности сохранённых файлов.
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ScrubReportDTO {
+	/**
+	 * Количество проверенных файлов.
+	 */
+	private long scanned;
+
+	/**
+	 * Объём прочитанных данных в байтах.
+	 */
+	private long bytes;
+
+	/**
+	 * Количество файлов, контрольная сумма которых не совпала с сохранённой.
+	 */
+	private long mismatched;
+
+	/**
+	 * Количество файлов без сохранённой контрольной суммы.
+	 */
+	private long unverified;
+
+	/**
+	 * Количество файлов, которые не удалось прочитать.
+	 */
+	private long failed;
+}
@@ -0,0 +1,30 @@
+package ru.isin.starter.filesystem.domain;
+
+import lombok.*;
+
+/**
+ * ДТО для представления результатов миграции файлов между горячим и холодным уровнями.
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class TieringReportDTO {
+	/**
+	 * Количество файлов, перенесённых на холодный уровень.
+	 */
+	private long demoted;
+
+	/**
+	 * Количество файлов, возвращённых на горячий уровень.
+	 */
+	private long promoted;
+
+	/**
+	 * Количество файлов, которые не удалось перенести.
+	 */
+	private long failed;
+}
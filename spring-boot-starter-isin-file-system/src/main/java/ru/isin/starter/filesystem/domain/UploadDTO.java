@@ -0,0 +1,45 @@
+package ru.isin.starter.filesystem.domain;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * ДТО для представления состояния загрузки файла частями.
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UploadDTO {
+	/**
+	 * Идентификатор загрузки.
+	 */
+	@NonNull
+	private String uploadId;
+
+	/**
+	 * Имя загружаемого файла.
+	 */
+	@NonNull
+	private String name;
+
+	/**
+	 * Размер загружаемого файла.
+	 */
+	private long size;
+
+	/**
+	 * Количество полученных байт.
+	 */
+	private long received;
+
+	/**
+	 * Полученные диапазоны байт в порядке возрастания смещения.
+	 */
+	@NonNull
+	private List<UploadRangeDTO> ranges;
+}
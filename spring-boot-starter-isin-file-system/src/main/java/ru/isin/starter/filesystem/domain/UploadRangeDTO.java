@@ -0,0 +1,25 @@
+package ru.isin.starter.filesystem.domain;
+
+import lombok.*;
+
+/**
+ * ДТО для представления непрерывного диапазона байт загружаемого файла.
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UploadRangeDTO {
+	/**
+	 * Смещение начала диапазона.
+	 */
+	private long offset;
+
+	/**
+	 * Длина диапазона.
+	 */
+	private long length;
+}
@@ -0,0 +1,66 @@
+package ru.isin.starter.filesystem.properties;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Параметры контроля целостности сохранённых файлов.
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+@Getter
+@ConstructorBinding
+@ConfigurationProperties(prefix = "isin.filesystem.integrity")
+public class IntegrityProperties {
+	private static final String DEFAULT_ENABLED = "false";
+	private static final String DEFAULT_VERIFY_ON_READ = "false";
+	private static final String DEFAULT_SCRUB_BANDWIDTH = "16MB";
+	private static final String DEFAULT_SCRUB_PARALLELISM = "2";
+	private static final String DEFAULT_SCRUB_INTERVAL = "24h";
+
+	/**
+	 * Признак вычисления и сохранения контрольных сумм.
+	 */
+	private final boolean enabled;
+
+	/**
+	 * Признак проверки контрольной суммы при каждом чтении файла.
+	 */
+	private final boolean verifyOnRead;
+
+	/**
+	 * Объём данных, который фоновая проверка может прочитать за секунду. Нулевое значение снимает ограничение.
+	 */
+	private final DataSize scrubBandwidth;
+
+	/**
+	 * Количество потоков фоновой проверки.
+	 */
+	private final int scrubParallelism;
+
+	/**
+	 * Период запуска фоновой проверки. Нулевое значение отключает фоновую проверку.
+	 */
+	private final Duration scrubInterval;
+
+	/**
+	 * Констуктор.
+	 */
+	public IntegrityProperties(@DefaultValue(DEFAULT_ENABLED) boolean enabled,
+							   @DefaultValue(DEFAULT_VERIFY_ON_READ) boolean verifyOnRead,
+							   @DefaultValue(DEFAULT_SCRUB_BANDWIDTH) DataSize scrubBandwidth,
+							   @DefaultValue(DEFAULT_SCRUB_PARALLELISM) int scrubParallelism,
+							   @DefaultValue(DEFAULT_SCRUB_INTERVAL) Duration scrubInterval) {
+		this.enabled = enabled;
+		this.verifyOnRead = verifyOnRead;
+		this.scrubBandwidth = scrubBandwidth;
+		this.scrubParallelism = scrubParallelism;
+		this.scrubInterval = scrubInterval;
+	}
+}
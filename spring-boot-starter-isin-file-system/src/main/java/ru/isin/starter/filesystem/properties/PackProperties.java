@@ -0,0 +1,75 @@
+package ru.isin.starter.filesystem.properties;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Параметры упаковки небольших файлов в сегменты.
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+@Getter
+@ConstructorBinding
+@ConfigurationProperties(prefix = "isin.filesystem.pack")
+public class PackProperties {
+	private static final String DEFAULT_ENABLED = "false";
+	private static final String DEFAULT_DIRECTORY = "storage/segments";
+	private static final String DEFAULT_MAX_OBJECT_SIZE = "65536";
+	private static final String DEFAULT_SEGMENT_SIZE = "268435456";
+	private static final String DEFAULT_COMPACTION_GARBAGE_RATIO = "0.5";
+	private static final String DEFAULT_COMPACTION_INTERVAL = "10m";
+
+	/**
+	 * Признак включения упаковки.
+	 */
+	private final boolean enabled;
+
+	/**
+	 * Директория для хранения сегментов.
+	 */
+	private final Path directory;
+
+	/**
+	 * Максимальный размер файла (в байтах), который будет упакован в сегмент.
+	 */
+	private final long maxObjectSize;
+
+	/**
+	 * Размер сегмента (в байтах), после достижения которого запись продолжается в новый сегмент.
+	 */
+	private final long segmentSize;
+
+	/**
+	 * Доля удалённых данных в сегменте, после достижения которой сегмент будет уплотнён.
+	 */
+	private final double compactionGarbageRatio;
+
+	/**
+	 * Период запуска фонового уплотнения сегментов. Нулевое значение отключает фоновое уплотнение.
+	 */
+	private final Duration compactionInterval;
+
+	/**
+	 * Констуктор.
+	 */
+	public PackProperties(@DefaultValue(DEFAULT_ENABLED) boolean enabled,
+						  @DefaultValue(DEFAULT_DIRECTORY) String directory,
+						  @DefaultValue(DEFAULT_MAX_OBJECT_SIZE) long maxObjectSize,
+						  @DefaultValue(DEFAULT_SEGMENT_SIZE) long segmentSize,
+						  @DefaultValue(DEFAULT_COMPACTION_GARBAGE_RATIO) double compactionGarbageRatio,
+						  @DefaultValue(DEFAULT_COMPACTION_INTERVAL) Duration compactionInterval) {
+		this.enabled = enabled;
+		this.directory = Paths.get(directory);
+		this.maxObjectSize = maxObjectSize;
+		this.segmentSize = segmentSize;
+		this.compactionGarbageRatio = compactionGarbageRatio;
+		this.compactionInterval = compactionInterval;
+	}
+}
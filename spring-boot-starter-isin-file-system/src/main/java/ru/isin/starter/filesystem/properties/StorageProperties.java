@@ -4,10 +4,16 @@ import lombok.Getter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.ConstructorBinding;
 import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.boot.convert.DurationStyle;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Параметры для создания иерархии директорий и сохранения файлов.
@@ -16,7 +22,6 @@ import java.nio.file.Paths;
  * @since 1.0.0
  */
 @Getter
-@ConstructorBinding
 @Configuration
 @ConfigurationProperties(prefix = "isin.filesystem.storage")
 public class StorageProperties {
@@ -24,6 +29,11 @@ public class StorageProperties {
 	private static final String DEFAULT_DIRECTORY_NESTING_LEVEL = "3";
 	private static final String DEFAULT_DIRECTORY_NAME_LENGTH = "2";
 	private static final String MIN_FILE_NAME_LENGTH = "5";
+	private static final String DEFAULT_VOLUME_WEIGHT = "1";
+	private static final String DEFAULT_BANDWIDTH = "0";
+	private static final String DEFAULT_IOPS = "0";
+	private static final String DEFAULT_MAX_YIELD_TIME = "100ms";
+	private static final String DEFAULT_ATOMIC_WRITES = "false";
 
 	/**
 	 * Корневая директория.
@@ -45,16 +55,213 @@ public class StorageProperties {
 	 */
 	private final int minFileNameLength;
 
+	/**
+	 * Корневые директории томов, между которыми распределяются файлы.
+	 * Если тома не указаны, используется единственный том с корнем {@link #rootDirectory}
+	 */
+	private final List<Volume> volumes;
+
+	/**
+	 * Параметры планирования операций ввода-вывода.
+	 */
+	private final Io io;
+
+	/**
+	 * Схема размещения файлов, из которой они переносятся в текущую.
+	 * Пока перенос не завершён, файлы ищутся сначала по текущей схеме, затем по предыдущей
+	 */
+	private final Layout previousLayout;
+
+	/**
+	 * Признак атомарного изменения сохранённых файлов при дозаписи и записи по смещению.
+	 * Если признак установлен, изменяется копия файла, которая затем заменяет его целиком,
+	 * иначе файл изменяется на месте
+	 */
+	private final boolean atomicWrites;
+
+	/**
+	 * Параметры тома.
+	 */
+	@Getter
+	public static class Volume {
+		/**
+		 * Корневая директория тома.
+		 */
+		private final Path path;
+
+		/**
+		 * Вес тома, пропорционально которому на него распределяются файлы.
+		 */
+		private final double weight;
+
+		/**
+		 * Констуктор.
+		 */
+		public Volume(String path, @DefaultValue(DEFAULT_VOLUME_WEIGHT) double weight) {
+			this.path = Paths.get(path);
+			this.weight = weight;
+		}
+	}
+
+	/**
+	 * Параметры схемы размещения файлов в иерархии директорий.
+	 */
+	@Getter
+	public static class Layout {
+		/**
+		 * Уровень вложенности директорий.
+		 */
+		private final int directoryNestingLevel;
+
+		/**
+		 * Длина имени одной директории.
+		 */
+		private final int directoryNameLength;
+
+		/**
+		 * Минимальная длина имени файла.
+		 */
+		private final int minFileNameLength;
+
+		/**
+		 * Констуктор.
+		 */
+		public Layout(@DefaultValue(DEFAULT_DIRECTORY_NESTING_LEVEL) int directoryNestingLevel,
+					  @DefaultValue(DEFAULT_DIRECTORY_NAME_LENGTH) int directoryNameLength,
+					  @DefaultValue(MIN_FILE_NAME_LENGTH) int minFileNameLength) {
+			this.directoryNestingLevel = directoryNestingLevel;
+			this.directoryNameLength = directoryNameLength;
+			this.minFileNameLength = minFileNameLength;
+		}
+	}
+
+	/**
+	 * Параметры планирования операций ввода-вывода по классам приоритета.
+	 * Операции класса с меньшим приоритетом ожидают завершения выполняющихся операций классов
+	 * с большим приоритетом, но не дольше {@link #maxYieldTime}
+	 */
+	@Getter
+	public static class Io {
+		/**
+		 * Ограничения для операций чтения и сохранения, выполняемых по запросу пользователя.
+		 */
+		private final IoLimit interactive;
+
+		/**
+		 * Ограничения для массовых операций: перечисления файлов и обработки их наборов.
+		 */
+		private final IoLimit batch;
+
+		/**
+		 * Ограничения для фонового обслуживания: очистки, уплотнения, проверки и переноса файлов.
+		 */
+		private final IoLimit maintenance;
+
+		/**
+		 * Максимальное время, которое операция уступает операциям с большим приоритетом.
+		 */
+		private final Duration maxYieldTime;
+
+		/**
+		 * Констуктор.
+		 */
+		public Io(IoLimit interactive,
+				  IoLimit batch,
+				  IoLimit maintenance,
+				  @DefaultValue(DEFAULT_MAX_YIELD_TIME) Duration maxYieldTime) {
+			this.interactive = interactive == null ? IoLimit.unlimited() : interactive;
+			this.batch = batch == null ? IoLimit.unlimited() : batch;
+			this.maintenance = maintenance == null ? IoLimit.unlimited() : maintenance;
+			this.maxYieldTime = maxYieldTime == null ?
+					DurationStyle.detectAndParse(DEFAULT_MAX_YIELD_TIME) :
+					maxYieldTime;
+		}
+	}
+
+	/**
+	 * Ограничения скорости операций ввода-вывода одного класса. Нулевое значение снимает ограничение.
+	 */
+	@Getter
+	public static class IoLimit {
+		/**
+		 * Объём данных, который можно прочитать или записать за секунду.
+		 */
+		private final DataSize bandwidth;
+
+		/**
+		 * Количество операций в секунду.
+		 */
+		private final int iops;
+
+		/**
+		 * Констуктор.
+		 */
+		public IoLimit(@DefaultValue(DEFAULT_BANDWIDTH) DataSize bandwidth, @DefaultValue(DEFAULT_IOPS) int iops) {
+			this.bandwidth = bandwidth;
+			this.iops = iops;
+		}
+
+		/**
+		 * Метод для получения ограничений, которые ничего не ограничивают.
+		 *
+		 * @return ограничения
+		 */
+		public static IoLimit unlimited() {
+			return new IoLimit(DataSize.parse(DEFAULT_BANDWIDTH), Integer.parseInt(DEFAULT_IOPS));
+		}
+	}
+
 	/**
 	 * Констуктор.
 	 */
+	@ConstructorBinding
 	public StorageProperties(@DefaultValue(DEFAULT_ROOT_DIRECTORY) String rootDirectory,
 							 @DefaultValue(DEFAULT_DIRECTORY_NESTING_LEVEL) int directoryNestingLevel,
 							 @DefaultValue(DEFAULT_DIRECTORY_NAME_LENGTH) int directoryNameLength,
-							 @DefaultValue(MIN_FILE_NAME_LENGTH) int minFileNameLength) {
+							 @DefaultValue(MIN_FILE_NAME_LENGTH) int minFileNameLength,
+							 List<Volume> volumes,
+							 Io io,
+							 Layout previousLayout,
+							 @DefaultValue(DEFAULT_ATOMIC_WRITES) boolean atomicWrites) {
 		this.rootDirectory = Paths.get(rootDirectory);
 		this.directoryNestingLevel = directoryNestingLevel;
 		this.directoryNameLength = directoryNameLength;
 		this.minFileNameLength = minFileNameLength;
+		this.volumes = volumes == null || volumes.isEmpty() ?
+				List.of(new Volume(rootDirectory, Double.parseDouble(DEFAULT_VOLUME_WEIGHT))) :
+				List.copyOf(volumes);
+		this.io = io == null ? new Io(null, null, null, null) : io;
+		this.previousLayout = previousLayout;
+		this.atomicWrites = atomicWrites;
+	}
+
+	/**
+	 * Констуктор для хранилища без ограничений ввода-вывода.
+	 */
+	public StorageProperties(String rootDirectory,
+							 int directoryNestingLevel,
+							 int directoryNameLength,
+							 int minFileNameLength,
+							 List<Volume> volumes) {
+		this(rootDirectory, directoryNestingLevel, directoryNameLength, minFileNameLength, volumes, null, null, false);
+	}
+
+	/**
+	 * Констуктор для хранилища с единственным томом.
+	 */
+	public StorageProperties(String rootDirectory,
+							 int directoryNestingLevel,
+							 int directoryNameLength,
+							 int minFileNameLength) {
+		this(rootDirectory, directoryNestingLevel, directoryNameLength, minFileNameLength, Collections.emptyList());
+	}
+
+	/**
+	 * Метод для получения корневых директорий всех томов.
+	 *
+	 * @return корневые директории томов
+	 */
+	public List<Path> getRootDirectories() {
+		return volumes.stream().map(Volume::getPath).collect(Collectors.toList());
 	}
 }
\ No newline at end of file
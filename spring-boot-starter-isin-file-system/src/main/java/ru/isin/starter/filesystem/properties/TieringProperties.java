@@ -0,0 +1,69 @@
+package ru.isin.starter.filesystem.properties;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Параметры разделения хранилища на горячий и холодный уровни.
+ * Горячим уровнем являются тома из {@link StorageProperties}
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+@Getter
+@ConstructorBinding
+@ConfigurationProperties(prefix = "isin.filesystem.tiering")
+public class TieringProperties {
+	private static final String DEFAULT_ENABLED = "false";
+	private static final String DEFAULT_COLD_DIRECTORY = "storage/cold";
+	private static final String DEFAULT_DEMOTION_AGE = "7d";
+	private static final String DEFAULT_PROMOTION_READ_COUNT = "3";
+	private static final String DEFAULT_MIGRATION_INTERVAL = "1h";
+
+	/**
+	 * Признак включения холодного уровня.
+	 */
+	private final boolean enabled;
+
+	/**
+	 * Корневая директория холодного уровня.
+	 */
+	private final Path coldDirectory;
+
+	/**
+	 * Время без чтения, после которого файл переносится на холодный уровень.
+	 */
+	private final Duration demotionAge;
+
+	/**
+	 * Количество чтений файла с холодного уровня между запусками миграции,
+	 * после которого файл возвращается на горячий уровень.
+	 */
+	private final int promotionReadCount;
+
+	/**
+	 * Период запуска фоновой миграции. Нулевое значение отключает фоновую миграцию.
+	 */
+	private final Duration migrationInterval;
+
+	/**
+	 * Констуктор.
+	 */
+	public TieringProperties(@DefaultValue(DEFAULT_ENABLED) boolean enabled,
+							 @DefaultValue(DEFAULT_COLD_DIRECTORY) String coldDirectory,
+							 @DefaultValue(DEFAULT_DEMOTION_AGE) Duration demotionAge,
+							 @DefaultValue(DEFAULT_PROMOTION_READ_COUNT) int promotionReadCount,
+							 @DefaultValue(DEFAULT_MIGRATION_INTERVAL) Duration migrationInterval) {
+		this.enabled = enabled;
+		this.coldDirectory = Paths.get(coldDirectory);
+		this.demotionAge = demotionAge;
+		this.promotionReadCount = promotionReadCount;
+		this.migrationInterval = migrationInterval;
+	}
+}
@@ -0,0 +1,52 @@
+package ru.isin.starter.filesystem.properties;
+
+import lombok.Getter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Параметры загрузки файлов частями.
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+@Getter
+@ConstructorBinding
+@ConfigurationProperties(prefix = "isin.filesystem.upload")
+public class UploadProperties {
+	private static final String DEFAULT_ENABLED = "false";
+	private static final String DEFAULT_DIRECTORY = "storage/uploads";
+	private static final String DEFAULT_EXPIRATION = "24h";
+
+	/**
+	 * Признак включения загрузки частями.
+	 */
+	private final boolean enabled;
+
+	/**
+	 * Директория незавершённых загрузок.
+	 */
+	private final Path directory;
+
+	/**
+	 * Время без записи частей, после которого незавершённая загрузка удаляется.
+	 * Нулевое значение отключает удаление.
+	 */
+	private final Duration expiration;
+
+	/**
+	 * Констуктор.
+	 */
+	public UploadProperties(@DefaultValue(DEFAULT_ENABLED) boolean enabled,
+							@DefaultValue(DEFAULT_DIRECTORY) String directory,
+							@DefaultValue(DEFAULT_EXPIRATION) Duration expiration) {
+		this.enabled = enabled;
+		this.directory = Paths.get(directory);
+		this.expiration = expiration;
+	}
+}
@@ -2,11 +2,16 @@ package ru.isin.starter.filesystem.service;
 
 import org.springframework.web.multipart.MultipartFile;
 import ru.isin.starter.filesystem.domain.FileDTO;
+import ru.isin.starter.filesystem.domain.FileFilterDTO;
+import ru.isin.starter.filesystem.domain.FilePageDTO;
+import ru.isin.starter.filesystem.domain.UploadDTO;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Path;
+import java.util.stream.Stream;
 
 /**
  * Сервис для сохранения файлов.
@@ -27,7 +32,7 @@ public interface StorageService {
 	 *
 	 * @param data        поток данных для сохранения
 	 * @param fileName    имя файла, в котором будет сохранена информация
-	 * @param contentType тип хранимой информации
+	 * @param contentType тип хранимой информации или null, чтобы определить его по содержимому
 	 * @return объект с информацией о сохранённом файле
 	 * @throws IOException в случае ошибки при создании файла или директории
 	 */
@@ -99,6 +104,31 @@ public interface StorageService {
 	 */
 	FileDTO update(Path fileName, MultipartFile file) throws IOException;
 
+	/**
+	 * Метод для дозаписи данных в конец сохранённого файла.
+	 * Файл изменяется без перезаписи сохранённых данных, при атомарной записи изменяется его копия.
+	 *
+	 * @param fileName исходное имя файла
+	 * @param data     дописываемые данные
+	 * @return объект с информацией об изменённом файле
+	 * @throws IOException в случае ошибки записи или отсутствия файла
+	 */
+	FileDTO append(Path fileName, InputStream data) throws IOException;
+
+	/**
+	 * Метод для записи данных в сохранённый файл начиная с указанного смещения.
+	 * Данные за пределами записанного диапазона не перезаписываются, файл увеличивается,
+	 * если запись выходит за его конец. При атомарной записи изменяется копия файла.
+	 *
+	 * @param fileName исходное имя файла
+	 * @param offset   смещение в файле, не больше его размера
+	 * @param data     записываемые данные
+	 * @return объект с информацией об изменённом файле
+	 * @throws IOException              в случае ошибки записи или отсутствия файла
+	 * @throws IllegalArgumentException если смещение отрицательно или больше размера файла
+	 */
+	FileDTO write(Path fileName, long offset, ReadableByteChannel data) throws IOException;
+
 	/**
 	 * Метод для удаления сохранённого файла и образовавшихся пустых директорий.
 	 *
@@ -115,6 +145,90 @@ public interface StorageService {
 	 */
 	Path getActualPath(Path fileName);
 
+	/**
+	 * Метод для ленивого перечисления всех сохранённых файлов.
+	 *
+	 * @return поток с информацией о сохранённых файлах
+	 * @throws IOException в случае ошибки чтения корневых директорий
+	 * @see #stream(FileFilterDTO)
+	 */
+	Stream<FileDTO> stream() throws IOException;
+
+	/**
+	 * Метод для ленивого перечисления сохранённых файлов, удовлетворяющих условиям отбора.
+	 * Директории читаются по мере обхода, параллельный поток обходит разные директории верхнего уровня
+	 * в разных потоках. Исходные имена файлов не хранятся, поэтому в качестве имени возвращается путь
+	 * файла относительно корня тома
+	 *
+	 * @param filter условия отбора файлов
+	 * @return поток с информацией о сохранённых файлах
+	 * @throws IOException в случае ошибки чтения корневых директорий
+	 */
+	Stream<FileDTO> stream(FileFilterDTO filter) throws IOException;
+
+	/**
+	 * Метод для постраничного перечисления сохранённых файлов.
+	 * Следующая страница начинается сразу после файла, на который указывает курсор,
+	 * без повторного просмотра пройденных директорий
+	 *
+	 * @param filter условия отбора файлов
+	 * @param cursor курсор из предыдущей страницы или null для получения первой страницы
+	 * @param limit  максимальное количество файлов на странице
+	 * @return страница с информацией о сохранённых файлах
+	 * @throws IOException в случае ошибки чтения корневых директорий
+	 */
+	FilePageDTO list(FileFilterDTO filter, String cursor, int limit) throws IOException;
+
+	/**
+	 * Метод для начала загрузки файла частями.
+	 *
+	 * @param fileName    имя файла, в котором будет сохранена информация
+	 * @param contentType тип хранимой информации или null, чтобы определить его по содержимому
+	 * @param size        размер файла
+	 * @return состояние загрузки с её идентификатором
+	 * @throws IOException в случае ошибки создания временного файла
+	 */
+	UploadDTO beginUpload(String fileName, String contentType, long size) throws IOException;
+
+	/**
+	 * Метод для записи части загружаемого файла.
+	 * Части могут записываться параллельно и в любом порядке.
+	 *
+	 * @param uploadId идентификатор загрузки
+	 * @param offset   смещение части в файле
+	 * @param data     поток данных части
+	 * @throws IOException           в случае ошибки записи или отсутствия загрузки
+	 * @throws IllegalStateException если загрузка завершается
+	 */
+	void writeChunk(String uploadId, long offset, InputStream data) throws IOException;
+
+	/**
+	 * Метод для получения состояния загрузки, в том числе после перезапуска приложения.
+	 *
+	 * @param uploadId идентификатор загрузки
+	 * @return состояние загрузки с полученными диапазонами
+	 * @throws IOException в случае ошибки чтения состояния или отсутствия загрузки
+	 */
+	UploadDTO getUpload(String uploadId) throws IOException;
+
+	/**
+	 * Метод для завершения загрузки и сохранения полученного файла.
+	 * Начатые записи частей дожидаются окончания, последующие отклоняются.
+	 *
+	 * @param uploadId идентификатор загрузки
+	 * @return объект с информацией о сохранённом файле
+	 * @throws IOException в случае ошибки сохранения или отсутствия загрузки
+	 */
+	FileDTO completeUpload(String uploadId) throws IOException;
+
+	/**
+	 * Метод для отмены загрузки.
+	 *
+	 * @param uploadId идентификатор загрузки
+	 * @throws IOException в случае ошибки удаления или отсутствия загрузки
+	 */
+	void abortUpload(String uploadId) throws IOException;
+
 	/**
 	 * Метод для удаления пустых директорий.
 	 *
@@ -124,6 +238,8 @@ public interface StorageService {
 
 	/**
 	 * Метод для удаления пустых директорий вверх по иерархии, начиная с выбранного места.
+	 * Удаление выполняется без блокировок: директория, в которой параллельно создан файл, не удаляется,
+	 * а создание файла повторяет создание удалённых директорий.
 	 *
 	 * @param startFile файл, с которого будет начато удаление
 	 * @throws IOException в случае ошибки открытия директории
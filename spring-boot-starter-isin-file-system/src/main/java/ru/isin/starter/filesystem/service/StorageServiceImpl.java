@@ -1,22 +1,51 @@
 package ru.isin.starter.filesystem.service;
 
-import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import ru.isin.core.utils.log.tree.annotation.Profiled;
 import ru.isin.starter.filesystem.domain.FileDTO;
+import ru.isin.starter.filesystem.domain.FileFilterDTO;
+import ru.isin.starter.filesystem.domain.FilePageDTO;
+import ru.isin.starter.filesystem.domain.UploadDTO;
 import ru.isin.starter.filesystem.properties.StorageProperties;
+import ru.isin.starter.filesystem.service.content.ContentTypeDetector;
+import ru.isin.starter.filesystem.service.integrity.ChecksumStore;
+import ru.isin.starter.filesystem.service.io.IoClass;
+import ru.isin.starter.filesystem.service.io.IoScheduler;
+import ru.isin.starter.filesystem.service.layout.DirectoryLayout;
+import ru.isin.starter.filesystem.service.layout.StorageLayout;
+import ru.isin.starter.filesystem.service.listing.StorageSpliterator;
+import ru.isin.starter.filesystem.service.lock.FileLocks;
+import ru.isin.starter.filesystem.service.pack.SegmentStore;
+import ru.isin.starter.filesystem.service.tier.TierManager;
+import ru.isin.starter.filesystem.service.upload.UploadManager;
+import ru.isin.starter.filesystem.service.volume.VolumeSelector;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryNotEmptyException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.CRC32C;
 
 /**
  * Реализация интерфейса {@link StorageService}.
@@ -26,10 +55,75 @@ import java.util.stream.Collectors;
  */
 @Profiled
 @Service
-@AllArgsConstructor
 public class StorageServiceImpl implements StorageService {
+	private static final String UPLOAD_SUFFIX = ".upload";
+	private static final String WRITE_SUFFIX = ".write";
+	private static final long APPEND_OFFSET = -1;
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final int HEAD_SIZE = 512;
+
 	private final HashService hashServiceImpl;
 	private final StorageProperties storageProperties;
+	private final SegmentStore segmentStore;
+	private final TierManager tierManager;
+	private final ChecksumStore checksumStore;
+	private final IoScheduler ioScheduler;
+	private final StorageLayout storageLayout;
+	private final ContentTypeDetector contentTypeDetector;
+	private final UploadManager uploadManager;
+	private final FileLocks fileLocks;
+	private final VolumeSelector volumeSelector;
+
+	/**
+	 * Констуктор.
+	 *
+	 * @param hashServiceImpl     сервис для вычисления хэш-кодов имён файлов
+	 * @param storageProperties   параметры сохранения
+	 * @param segmentStore        хранилище упакованных небольших файлов или null, если упаковка отключена
+	 * @param tierManager         управление уровнями хранилища или null, если холодный уровень отключён
+	 * @param checksumStore       хранение контрольных сумм или null, если контроль целостности отключён
+	 * @param ioScheduler         планировщик ввода-вывода или null, чтобы создать планировщик
+	 *                            по параметрам {@link StorageProperties#getIo()}
+	 * @param storageLayout       схемы размещения файлов или null, чтобы взять схемы из параметров сохранения
+	 * @param contentTypeDetector определение типа содержимого файлов, тип которых не передан при сохранении,
+	 *                            или null, чтобы использовать сигнатуры по умолчанию
+	 * @param uploadManager       управление загрузками частями или null, если загрузка частями отключена
+	 * @param fileLocks           блокировки файлов, общие с фоновыми операциями переноса файлов,
+	 *                            или null, чтобы создать блокировки только для этого сервиса
+	 */
+	@Builder
+	public StorageServiceImpl(HashService hashServiceImpl,
+							  StorageProperties storageProperties,
+							  SegmentStore segmentStore,
+							  TierManager tierManager,
+							  ChecksumStore checksumStore,
+							  IoScheduler ioScheduler,
+							  StorageLayout storageLayout,
+							  ContentTypeDetector contentTypeDetector,
+							  UploadManager uploadManager,
+							  FileLocks fileLocks) {
+		this.hashServiceImpl = hashServiceImpl;
+		this.storageProperties = storageProperties;
+		this.segmentStore = segmentStore;
+		this.tierManager = tierManager;
+		this.checksumStore = checksumStore;
+		this.ioScheduler = ioScheduler == null ? new IoScheduler(storageProperties.getIo()) : ioScheduler;
+		this.storageLayout = storageLayout == null ? StorageLayout.of(storageProperties) : storageLayout;
+		this.contentTypeDetector = contentTypeDetector == null ? new ContentTypeDetector() : contentTypeDetector;
+		this.uploadManager = uploadManager;
+		this.fileLocks = fileLocks == null ? new FileLocks() : fileLocks;
+		this.volumeSelector = new VolumeSelector(storageProperties.getVolumes());
+	}
+
+	/**
+	 * Констуктор сервиса без упаковки небольших файлов, холодного уровня и контроля целостности.
+	 *
+	 * @param hashServiceImpl   сервис для вычисления хэш-кодов имён файлов
+	 * @param storageProperties параметры сохранения
+	 */
+	public StorageServiceImpl(HashService hashServiceImpl, StorageProperties storageProperties) {
+		this(hashServiceImpl, storageProperties, null, null, null, null, null, null, null, null);
+	}
 
 	/**
 	 * Класс для сбора необходимой для сохранения инфмормации о предоставленных данных.
@@ -65,7 +159,6 @@ public class StorageServiceImpl implements StorageService {
 	public FileDTO save(File file) throws IOException {
 		FileInfo fileInfo = FileInfo.builder().
 				name(file.getName()).
-				contentType(Files.probeContentType(file.toPath())).
 				size(Files.size(file.toPath())).
 				content(Files.readAllBytes(file.toPath())).
 				build();
@@ -79,7 +172,6 @@ public class StorageServiceImpl implements StorageService {
 	public FileDTO save(Path file) throws IOException {
 		FileInfo fileInfo = FileInfo.builder().
 				name(file.getFileName().toString()).
-				contentType(Files.probeContentType(file)).
 				size(Files.size(file)).
 				content(Files.readAllBytes(file)).
 				build();
@@ -105,8 +197,10 @@ public class StorageServiceImpl implements StorageService {
 	 */
 	@Override
 	public byte[] read(Path fileName) throws IOException {
-		FileInputStream fileInputStream = new FileInputStream(getActualPath(fileName).toFile());
-		return fileInputStream.readAllBytes();
+		byte[] content = ioScheduler.execute(IoClass.INTERACTIVE, 0,
+				() -> fileLocks.read(getRoutingKey(fileName), () -> readContent(fileName)));
+		ioScheduler.charge(IoClass.INTERACTIVE, content.length);
+		return content;
 	}
 
 	/**
@@ -114,17 +208,12 @@ public class StorageServiceImpl implements StorageService {
 	 */
 	@Override
 	public FileDTO update(Path fileName, Path file) throws IOException {
-		Path actualSystemPath = getActualPath(fileName);
-		checkBeforeUpdate(actualSystemPath);
-		Files.delete(actualSystemPath);
-
 		FileInfo fileInfo = FileInfo.builder().
 				name(fileName.toString()).
-				contentType(Files.probeContentType(file)).
 				size(Files.size(file)).
 				content(Files.readAllBytes(file)).
 				build();
-		return commitSave(fileInfo);
+		return commitUpdate(fileName, fileInfo);
 	}
 
 	/**
@@ -132,17 +221,12 @@ public class StorageServiceImpl implements StorageService {
 	 */
 	@Override
 	public FileDTO update(Path fileName, File file) throws IOException {
-		Path actualSystemPath = getActualPath(fileName);
-		checkBeforeUpdate(actualSystemPath);
-		Files.delete(actualSystemPath);
-
 		FileInfo fileInfo = FileInfo.builder().
 				name(fileName.toString()).
-				contentType(Files.probeContentType(file.toPath())).
 				size(Files.size(file.toPath())).
 				content(Files.readAllBytes(file.toPath())).
 				build();
-		return commitSave(fileInfo);
+		return commitUpdate(fileName, fileInfo);
 	}
 
 	/**
@@ -150,17 +234,32 @@ public class StorageServiceImpl implements StorageService {
 	 */
 	@Override
 	public FileDTO update(Path fileName, MultipartFile file) throws IOException {
-		Path actualSystemPath = getActualPath(fileName);
-		checkBeforeUpdate(actualSystemPath);
-		Files.delete(actualSystemPath);
-
 		FileInfo fileInfo = FileInfo.builder().
 				name(fileName.toString()).
 				contentType(file.getContentType()).
 				size(file.getSize()).
 				content(file.getBytes()).
 				build();
-		return commitSave(fileInfo);
+		return commitUpdate(fileName, fileInfo);
+	}
+
+	/**
+	 * {@inheritDoc}.
+	 */
+	@Override
+	public FileDTO append(Path fileName, InputStream data) throws IOException {
+		return modify(fileName, APPEND_OFFSET, Channels.newChannel(data));
+	}
+
+	/**
+	 * {@inheritDoc}.
+	 */
+	@Override
+	public FileDTO write(Path fileName, long offset, ReadableByteChannel data) throws IOException {
+		if (offset < 0) {
+			throw new IllegalArgumentException("Write offset must not be negative: " + offset);
+		}
+		return modify(fileName, offset, data);
 	}
 
 	/**
@@ -168,9 +267,10 @@ public class StorageServiceImpl implements StorageService {
 	 */
 	@Override
 	public void delete(Path fileName) throws IOException {
-		Path actualSystemPath = getActualPath(fileName);
-		Files.delete(actualSystemPath);
-		clearSubtree(actualSystemPath.getParent());
+		ioScheduler.execute(IoClass.INTERACTIVE, 0, () -> fileLocks.write(getRoutingKey(fileName), () -> {
+			deleteContent(fileName);
+			return null;
+		}));
 	}
 
 	/**
@@ -178,24 +278,126 @@ public class StorageServiceImpl implements StorageService {
 	 */
 	@Override
 	public Path getActualPath(Path fileName) {
-		String hash = countHash(fileName.getFileName().toString());
-		return storageProperties.getRootDirectory().
-				resolve(getDirectoriesPath(hash)).
-				resolve(hash.substring(countDirectoriesPartLength()));
+		String hash = getHash(fileName);
+		String routingKey = VolumeSelector.routingKey(hash);
+		Path coldPath = tierManager == null ? null : tierManager.getColdPath(routingKey);
+		if (coldPath != null) {
+			return coldPath;
+		}
+		return volumeSelector.select(routingKey).resolve(getRelativePath(hash));
 	}
 
 	/**
 	 * {@inheritDoc}.
 	 */
 	@Override
-	public void clear() throws IOException {
-		List<Path> paths = Files.walk(storageProperties.getRootDirectory()).
-				filter(Files::isDirectory).
-				filter(path -> path.toFile().listFiles() != null && path.toFile().listFiles().length == 0).
+	public Stream<FileDTO> stream() throws IOException {
+		return stream(FileFilterDTO.builder().build());
+	}
+
+	/**
+	 * {@inheritDoc}.
+	 */
+	@Override
+	public Stream<FileDTO> stream(FileFilterDTO filter) throws IOException {
+		return streamEntries(filter, null).map(StorageSpliterator.Entry::getFile);
+	}
+
+	/**
+	 * {@inheritDoc}.
+	 */
+	@Override
+	public FilePageDTO list(FileFilterDTO filter, String cursor, int limit) throws IOException {
+		if (limit <= 0) {
+			throw new IllegalArgumentException("Page limit must be positive");
+		}
+		List<StorageSpliterator.Entry> entries = streamEntries(filter, cursor).
+				limit(limit).
 				collect(Collectors.toList());
+		return FilePageDTO.builder().
+				files(entries.stream().map(StorageSpliterator.Entry::getFile).collect(Collectors.toList())).
+				nextCursor(entries.size() < limit ? null : entries.get(entries.size() - 1).getCursor()).
+				build();
+	}
+
+	/**
+	 * {@inheritDoc}.
+	 */
+	@Override
+	public UploadDTO beginUpload(String fileName, String contentType, long size) throws IOException {
+		return getUploadManager().begin(fileName, contentType, size);
+	}
+
+	/**
+	 * {@inheritDoc}.
+	 */
+	@Override
+	public void writeChunk(String uploadId, long offset, InputStream data) throws IOException {
+		UploadManager manager = getUploadManager();
+		long written = ioScheduler.execute(IoClass.INTERACTIVE, 0, () -> manager.write(uploadId, offset, data));
+		ioScheduler.charge(IoClass.INTERACTIVE, written);
+	}
 
-		for (Path path : paths) {
-			clearSubtree(path);
+	/**
+	 * {@inheritDoc}.
+	 */
+	@Override
+	public UploadDTO getUpload(String uploadId) throws IOException {
+		return getUploadManager().getStatus(uploadId);
+	}
+
+	/**
+	 * {@inheritDoc}.
+	 */
+	@Override
+	public FileDTO completeUpload(String uploadId) throws IOException {
+		UploadManager manager = getUploadManager();
+		UploadManager.CompletedUpload upload = manager.complete(uploadId);
+		String routingKey = getRoutingKey(Paths.get(upload.getName()));
+		AtomicLong copied = new AtomicLong();
+		FileDTO fileDTO;
+		try {
+			fileDTO = ioScheduler.execute(IoClass.INTERACTIVE, 0, () -> {
+				try {
+					return fileLocks.write(routingKey, () -> publish(upload, copied));
+				} finally {
+					ioScheduler.charge(IoClass.INTERACTIVE, copied.get());
+				}
+			});
+		} catch (IOException | RuntimeException e) {
+			manager.release(uploadId);
+			throw e;
+		}
+		manager.finish(uploadId);
+		return fileDTO;
+	}
+
+	/**
+	 * {@inheritDoc}.
+	 */
+	@Override
+	public void abortUpload(String uploadId) throws IOException {
+		getUploadManager().abort(uploadId);
+	}
+
+	/**
+	 * {@inheritDoc}.
+	 */
+	@Override
+	public void clear() throws IOException {
+		for (Path rootDirectory : getStorageRoots()) {
+			if (Files.notExists(rootDirectory)) {
+				continue;
+			}
+			List<Path> paths = Files.walk(rootDirectory).
+					filter(Files::isDirectory).
+					filter(StorageServiceImpl::isEmptyDirectory).
+					collect(Collectors.toList());
+
+			for (Path path : paths) {
+				ioScheduler.acquire(IoClass.MAINTENANCE, 0);
+				clearSubtree(path);
+			}
 		}
 	}
 
@@ -204,43 +406,468 @@ public class StorageServiceImpl implements StorageService {
 	 */
 	@Override
 	public void clearSubtree(Path startFile) throws IOException {
-		while (Files.exists(startFile) &&
-				startFile.toFile().listFiles() != null &&
-				startFile.toFile().listFiles().length == 0 &&
-				!startFile.equals(storageProperties.getRootDirectory())) {
-			Files.delete(startFile);
-			clearSubtree(startFile.getParent());
+		List<Path> rootDirectories = getStorageRoots();
+		Path directory = startFile;
+		while (directory != null && !rootDirectories.contains(directory) && Files.isDirectory(directory)) {
+			try {
+				Files.delete(directory);
+			} catch (DirectoryNotEmptyException | NoSuchFileException e) {
+				// Директория не пуста, в том числе из-за параллельно созданного файла, или уже удалена
+				return;
+			}
+			directory = directory.getParent();
 		}
 	}
 
+	/**
+	 * Проверка того, что директория существует и пуста.
+	 */
+	private static boolean isEmptyDirectory(Path directory) {
+		File[] files = directory.toFile().listFiles();
+		return files != null && files.length == 0;
+	}
+
 	/**
 	 * Сохранение файла.
 	 */
 	private FileDTO commitSave(FileInfo fileInfo) throws IOException {
-		createDirectories(getDirectoriesPath(countHash(fileInfo.getName())));
+		detectContentType(fileInfo);
+		String routingKey = getRoutingKey(Paths.get(fileInfo.getName()));
+		return ioScheduler.execute(IoClass.INTERACTIVE, fileInfo.getSize(),
+				() -> fileLocks.write(routingKey, () -> store(fileInfo)));
+	}
 
-		Path actualSystemPath = getActualPath(Paths.get(fileInfo.getName()));
+	/**
+	 * Замена сохранённого файла. Удаление прежней версии и сохранение новой выполняются под одной блокировкой,
+	 * поэтому фоновый перенос файла не может выполниться между ними.
+	 */
+	private FileDTO commitUpdate(Path fileName, FileInfo fileInfo) throws IOException {
+		detectContentType(fileInfo);
+		return ioScheduler.execute(IoClass.INTERACTIVE, fileInfo.getSize(),
+				() -> fileLocks.write(getRoutingKey(fileName), () -> {
+					deleteBeforeUpdate(fileName);
+					return store(fileInfo);
+				}));
+	}
 
-		if (Files.notExists(actualSystemPath)) {
-			Files.createFile(actualSystemPath);
-			try (FileOutputStream fileOutputStream = new FileOutputStream(actualSystemPath.toFile())) {
-				fileOutputStream.write(fileInfo.getContent());
-			}
+	/**
+	 * Определение типа содержимого, если он не передан.
+	 */
+	private void detectContentType(FileInfo fileInfo) {
+		if (fileInfo.getContentType() == null) {
+			fileInfo.setContentType(contentTypeDetector.detect(fileInfo.getContent(), fileInfo.getName()));
+		}
+	}
+
+	/**
+	 * Запись файла в сегмент или иерархию директорий.
+	 */
+	private FileDTO store(FileInfo fileInfo) throws IOException {
+		Path fileName = Paths.get(fileInfo.getName());
+		String hash = getHash(fileName);
+		Path actualSystemPath = locate(fileName);
+
+		boolean packed = isPacked(hash, actualSystemPath);
+		boolean stored = packed || Files.exists(actualSystemPath);
+		if (!stored && segmentStore != null && segmentStore.accepts(fileInfo.getSize())) {
+			segmentStore.put(hash, fileInfo.getContent());
+			packed = true;
+		} else if (!stored) {
+			writeStored(actualSystemPath, fileInfo.getContent());
 		}
 
 		return FileDTO.builder().
 				name(fileInfo.getName()).
-				path(actualSystemPath).
+				path(packed ? null : actualSystemPath).
 				contentType(fileInfo.getContentType()).
 				size(fileInfo.getSize()).
 				build();
 	}
 
+	/**
+	 * Проверка того, что файл упакован в сегмент, а не сохранён в иерархии директорий.
+	 */
+	private boolean isPacked(String hash, Path actualSystemPath) {
+		return segmentStore != null && !Files.exists(actualSystemPath) && segmentStore.contains(hash);
+	}
+
+	/**
+	 * Запись нового файла в иерархию директорий вместе с его контрольной суммой.
+	 */
+	private void writeStored(Path actualSystemPath, byte[] content) throws IOException {
+		DirectoryLayout.createInDirectory(actualSystemPath.getParent(), () -> Files.createFile(actualSystemPath));
+		try (FileOutputStream fileOutputStream = new FileOutputStream(actualSystemPath.toFile())) {
+			fileOutputStream.write(content);
+		}
+		if (checksumStore != null) {
+			checksumStore.write(actualSystemPath, ChecksumStore.compute(content));
+		}
+	}
+
+	/**
+	 * Публикация загруженного частями файла в сегмент или иерархию директорий.
+	 * Временный файл загрузки переименовывается в путь сохранённого файла, поэтому файл появляется целиком.
+	 * Контрольная сумма собирается из контрольных сумм частей без повторного чтения файла.
+	 */
+	private FileDTO publish(UploadManager.CompletedUpload upload, AtomicLong copied) throws IOException {
+		Path fileName = Paths.get(upload.getName());
+		String hash = getHash(fileName);
+		Path actualSystemPath = locate(fileName);
+
+		boolean packed = isPacked(hash, actualSystemPath);
+		boolean stored = packed || Files.exists(actualSystemPath);
+		if (!stored && segmentStore != null && segmentStore.accepts(upload.getSize())) {
+			segmentStore.put(hash, Files.readAllBytes(upload.getData()));
+			packed = true;
+		} else if (!stored) {
+			int checksum = checksumStore == null ? 0 : getChecksum(upload);
+			DirectoryLayout.createInDirectory(actualSystemPath.getParent(),
+					() -> moveUpload(upload, actualSystemPath, copied));
+			if (checksumStore != null) {
+				checksumStore.write(actualSystemPath, checksum);
+			}
+		}
+
+		String contentType = upload.getContentType() != null ? upload.getContentType() :
+				contentTypeDetector.detect(upload.getHead(), upload.getHead().length, upload.getName());
+		return FileDTO.builder().
+				name(upload.getName()).
+				path(packed ? null : actualSystemPath).
+				contentType(contentType).
+				size(upload.getSize()).
+				build();
+	}
+
+	/**
+	 * Контрольная сумма загрузки, собранная из частей, или вычисленная по файлу, если части перекрывались.
+	 */
+	private static int getChecksum(UploadManager.CompletedUpload upload) throws IOException {
+		return upload.getChecksum() != null ? upload.getChecksum() : ChecksumStore.compute(upload.getData());
+	}
+
+	/**
+	 * Перемещение временного файла загрузки в путь сохранённого файла.
+	 * Если директория загрузок находится на другой файловой системе, файл копируется во временный файл,
+	 * который сбрасывается на диск до переименования. Объём копирования учитывается после снятия блокировки.
+	 */
+	private static Path moveUpload(UploadManager.CompletedUpload upload, Path actualSystemPath, AtomicLong copied)
+			throws IOException {
+		try {
+			return Files.move(upload.getData(), actualSystemPath, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			// Директория загрузок находится на другой файловой системе
+		}
+		Path temporary = actualSystemPath.resolveSibling(actualSystemPath.getFileName() + UPLOAD_SUFFIX);
+		try {
+			copied.addAndGet(upload.getSize());
+			Files.copy(upload.getData(), temporary, StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.COPY_ATTRIBUTES);
+			try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+				channel.force(true);
+			}
+			return Files.move(temporary, actualSystemPath, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			Files.deleteIfExists(temporary);
+			throw e;
+		}
+	}
+
+	/**
+	 * Изменение сохранённого файла. Изменения одного файла выполняются последовательно,
+	 * а перенос файла между уровнями, томами и схемами размещения не выполняется во время изменения.
+	 * Объём записанных данных учитывается планировщиком ввода-вывода после освобождения блокировки файла,
+	 * поэтому ожидание ограничения скорости не задерживает другие операции с файлами той же полосы блокировок.
+	 */
+	private FileDTO modify(Path fileName, long offset, ReadableByteChannel data) throws IOException {
+		String hash = getHash(fileName);
+		String routingKey = VolumeSelector.routingKey(hash);
+		AtomicLong written = new AtomicLong();
+		return ioScheduler.execute(IoClass.INTERACTIVE, 0, () -> {
+			try {
+				return fileLocks.write(routingKey, () -> {
+					if (segmentStore != null && segmentStore.contains(hash)) {
+						return modifyPacked(fileName, hash, offset, data, written);
+					}
+					return modifyStored(fileName, offset, data, written);
+				});
+			} finally {
+				ioScheduler.charge(IoClass.INTERACTIVE, written.get());
+			}
+		});
+	}
+
+	/**
+	 * Изменение упакованного файла. Записи сегментов не изменяются, поэтому файл сохраняется заново,
+	 * а при превышении наибольшего размера упакованного файла переносится в иерархию директорий.
+	 * Прежняя запись удаляется только после сохранения новой версии, поэтому при ошибке файл не теряется,
+	 * а чтение не может его не найти.
+	 * В память читается не больше данных, чем помещается в упакованный файл: если изменённый файл больше,
+	 * прочитанная часть записывается в иерархию, а остальные данные дописываются в файл иерархии потоком.
+	 */
+	private FileDTO modifyPacked(Path fileName, String hash, long offset, ReadableByteChannel data, AtomicLong written)
+			throws IOException {
+		byte[] content = segmentStore.read(hash, checksumStore != null && checksumStore.isVerifyOnRead());
+		if (content == null) {
+			throw new NoSuchFileException(fileName.toString());
+		}
+		long position = offset == APPEND_OFFSET ? content.length : offset;
+		checkOffset(position, content.length);
+		ByteBuffer patch = ByteBuffer.allocate(Math.toIntExact(segmentStore.getMaxObjectSize() - position + 1));
+		fill(data, patch);
+		byte[] updated = Arrays.copyOf(content, Math.max(content.length, (int) position + patch.position()));
+		System.arraycopy(patch.array(), 0, updated, (int) position, patch.position());
+
+		written.addAndGet(updated.length);
+		Path actualSystemPath = locate(fileName);
+		if (segmentStore.accepts(updated.length)) {
+			segmentStore.put(hash, updated);
+			return FileDTO.builder().
+					name(fileName.toString()).
+					contentType(contentTypeDetector.detect(updated, fileName.toString())).
+					size((long) updated.length).
+					build();
+		}
+
+		FileDTO fileDTO;
+		writeStored(actualSystemPath, updated);
+		try {
+			fileDTO = modifyStored(fileName, updated.length, data, written);
+			segmentStore.delete(hash);
+		} catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(actualSystemPath);
+			throw e;
+		}
+		return fileDTO;
+	}
+
+	/**
+	 * Изменение файла иерархии позиционной записью на месте или, при атомарной записи, в копии,
+	 * которая затем заменяет файл переименованием.
+	 * Контрольная сумма пересчитывается по заменённым и дописанным данным без чтения остального файла.
+	 */
+	private FileDTO modifyStored(Path fileName, long offset, ReadableByteChannel data, AtomicLong written)
+			throws IOException {
+		Path actualSystemPath = locate(fileName);
+		checkBeforeUpdate(actualSystemPath);
+		if (Files.notExists(actualSystemPath)) {
+			throw new NoSuchFileException(fileName.toString());
+		}
+		long size = Files.size(actualSystemPath);
+		long position = offset == APPEND_OFFSET ? size : offset;
+		checkOffset(position, size);
+
+		Integer checksum = checksumStore == null ? null : checksumStore.read(actualSystemPath);
+		Path target = actualSystemPath;
+		if (storageProperties.isAtomicWrites()) {
+			target = actualSystemPath.resolveSibling(actualSystemPath.getFileName() + WRITE_SUFFIX);
+			written.addAndGet(size);
+			Files.copy(actualSystemPath, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+
+		byte[] head;
+		try (FileChannel channel = FileChannel.open(target, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+			ByteBuffer replaced = ByteBuffer.allocate(BUFFER_SIZE);
+			while (fill(data, buffer)) {
+				buffer.flip();
+				int length = buffer.remaining();
+				int overlap = (int) Math.min(length, size - position);
+				if (checksum != null) {
+					replaced.clear().limit(overlap);
+					while (replaced.hasRemaining() && channel.read(replaced, position + replaced.position()) > 0) {
+						// Чтение заменяемых данных до заполнения буфера
+					}
+					checksum = ChecksumStore.replace(checksum, crc32c(replaced.array(), 0, overlap),
+							crc32c(buffer.array(), 0, overlap), size - position - overlap);
+					checksum = ChecksumStore.combine(checksum, crc32c(buffer.array(), overlap, length),
+							length - overlap);
+				}
+				written.addAndGet(checksum == null ? length : length + overlap);
+				while (buffer.hasRemaining()) {
+					position += channel.write(buffer, position);
+				}
+				size = Math.max(size, position);
+				buffer.clear();
+			}
+			ByteBuffer headBuffer = ByteBuffer.allocate((int) Math.min(HEAD_SIZE, size));
+			while (headBuffer.hasRemaining() && channel.read(headBuffer, headBuffer.position()) > 0) {
+				// Чтение начала файла для определения типа содержимого
+			}
+			head = Arrays.copyOf(headBuffer.array(), headBuffer.position());
+			if (target != actualSystemPath) {
+				channel.force(true);
+			}
+		} catch (IOException | RuntimeException e) {
+			if (target != actualSystemPath) {
+				Files.deleteIfExists(target);
+			} else if (checksum != null) {
+				recomputeChecksum(actualSystemPath, e);
+			}
+			throw e;
+		}
+
+		if (checksum != null) {
+			checksumStore.write(target, checksum);
+		}
+		if (target != actualSystemPath) {
+			Files.move(target, actualSystemPath, StandardCopyOption.ATOMIC_MOVE);
+		}
+		return FileDTO.builder().
+				name(fileName.toString()).
+				path(actualSystemPath).
+				contentType(contentTypeDetector.detect(head, head.length, fileName.toString())).
+				size(size).
+				build();
+	}
+
+	/**
+	 * Пересчёт контрольной суммы файла, изменение которого на месте прервано ошибкой.
+	 * Часть данных могла быть уже записана, и сохранённая контрольная сумма больше не соответствует файлу.
+	 */
+	private void recomputeChecksum(Path file, Exception cause) {
+		try {
+			checksumStore.write(file, ChecksumStore.compute(file));
+		} catch (IOException | RuntimeException e) {
+			cause.addSuppressed(e);
+		}
+	}
+
+	/**
+	 * Создание потока сохранённых файлов вместе с их курсорами.
+	 */
+	private Stream<StorageSpliterator.Entry> streamEntries(FileFilterDTO filter, String cursor) throws IOException {
+		List<Path> rootDirectories = getStorageRoots();
+		StorageSpliterator spliterator = new StorageSpliterator(
+				rootDirectories,
+				segmentStore,
+				this::getRelativePath,
+				relativePath -> isRelayoutSource(rootDirectories, relativePath),
+				filter,
+				cursor);
+		return StreamSupport.stream(spliterator, false).peek(entry -> throttleListing());
+	}
+
+	/**
+	 * Проверка того, что файл иерархии является прежней копией файла, уже перенесённого в текущую схему размещения.
+	 * Пока перенос не завершён, файл может находиться и по предыдущей, и по текущей схеме
+	 */
+	private boolean isRelayoutSource(List<Path> rootDirectories, Path relativePath) {
+		DirectoryLayout previous = storageLayout.getPrevious();
+		if (previous == null) {
+			return false;
+		}
+		int hashLength = countHash("").length();
+		if (!storageLayout.getCurrent().recoverHashes(relativePath, hashLength).isEmpty()) {
+			return false;
+		}
+		for (String hash : previous.recoverHashes(relativePath, hashLength)) {
+			Path currentPath = getRelativePath(hash);
+			if (rootDirectories.stream().anyMatch(rootDirectory -> Files.exists(rootDirectory.resolve(currentPath)))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Учёт перечисленного файла в классе массовых операций.
+	 */
+	private void throttleListing() {
+		try {
+			ioScheduler.acquire(IoClass.BATCH, 0);
+		} catch (InterruptedIOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Чтение содержимого упакованного или сохранённого в иерархии файла.
+	 */
+	private byte[] readContent(Path fileName) throws IOException {
+		boolean verify = checksumStore != null && checksumStore.isVerifyOnRead();
+		if (segmentStore != null) {
+			byte[] content = segmentStore.read(getHash(fileName), verify);
+			if (content != null) {
+				return content;
+			}
+		}
+		Path actualSystemPath = locate(fileName);
+		byte[] content;
+		try (FileInputStream fileInputStream = new FileInputStream(actualSystemPath.toFile())) {
+			content = fileInputStream.readAllBytes();
+		}
+		if (verify) {
+			checksumStore.verify(actualSystemPath, content);
+		}
+		if (tierManager != null) {
+			tierManager.recordRead(getRoutingKey(fileName));
+		}
+		return content;
+	}
+
+	/**
+	 * Удаление упакованного или сохранённого в иерархии файла.
+	 */
+	private void deleteContent(Path fileName) throws IOException {
+		if (segmentStore != null && segmentStore.delete(getHash(fileName))) {
+			return;
+		}
+		Path actualSystemPath = locate(fileName);
+		Files.delete(actualSystemPath);
+		if (tierManager != null) {
+			tierManager.forget(getRoutingKey(fileName));
+		}
+		clearSubtree(actualSystemPath.getParent());
+	}
+
+	/**
+	 * Удаление сохранённой версии файла перед обновлением.
+	 */
+	private void deleteBeforeUpdate(Path fileName) throws IOException {
+		if (segmentStore != null && segmentStore.delete(getHash(fileName))) {
+			return;
+		}
+		Path actualSystemPath = locate(fileName);
+		checkBeforeUpdate(actualSystemPath);
+		Files.delete(actualSystemPath);
+		if (tierManager != null) {
+			tierManager.forget(getRoutingKey(fileName));
+		}
+	}
+
+	/**
+	 * Поиск сохранённого файла.
+	 * Файлы холодного уровня находятся по расположению, хранимому в памяти.
+	 * Если файла нет на выбранном томе (например, перераспределение между томами ещё не завершено),
+	 * он ищется на остальных томах. Пока не завершён перенос файлов в новую схему размещения,
+	 * файл ищется сначала по новой схеме, затем по предыдущей. Если файл не найден, возвращается путь
+	 * на выбранном томе по текущей схеме
+	 */
+	private Path locate(Path fileName) {
+		Path actualSystemPath = getActualPath(fileName);
+		List<Path> rootDirectories = storageProperties.getRootDirectories();
+		List<DirectoryLayout> layouts = storageLayout.getSearchOrder();
+		if (rootDirectories.size() == 1 && layouts.size() == 1 || Files.exists(actualSystemPath)) {
+			return actualSystemPath;
+		}
+		String hash = getHash(fileName);
+		for (DirectoryLayout layout : layouts) {
+			Path relativePath = layout.getRelativePath(hash);
+			for (Path rootDirectory : rootDirectories) {
+				Path candidate = rootDirectory.resolve(relativePath);
+				if (!candidate.equals(actualSystemPath) && Files.exists(candidate)) {
+					return candidate;
+				}
+			}
+		}
+		return actualSystemPath;
+	}
+
 	/**
 	 * Проверка того, что обновляемый файл принадлежит данному хранилищу и не является директорией.
 	 */
 	private void checkBeforeUpdate(Path path) {
-		if (!path.startsWith(storageProperties.getRootDirectory())) {
+		if (getStorageRoots().stream().noneMatch(path::startsWith)) {
 			throw new RuntimeException("You can not update files out of storage");
 		}
 		if (Files.isDirectory(path)) {
@@ -249,65 +876,87 @@ public class StorageServiceImpl implements StorageService {
 	}
 
 	/**
-	 * Вычисление длины имени сохраняемого файла, отводимой для иерархии директорий.
+	 * Проверка того, что запись начинается не дальше конца файла.
 	 */
-	private int countDirectoriesPartLength() {
-		return storageProperties.getDirectoryNestingLevel() * storageProperties.getDirectoryNameLength();
+	private static void checkOffset(long offset, long size) {
+		if (offset > size) {
+			throw new IllegalArgumentException("Write offset " + offset + " is beyond file size " + size);
+		}
 	}
 
 	/**
-	 * Безопасное вычисление хэш-кода.
+	 * Заполнение буфера данными из канала до его заполнения или конца данных.
+	 *
+	 * @return true, если в буфер прочитаны данные
 	 */
-	private String countHash(String fileName) {
-		try {
-			return Base64.getEncoder().encodeToString(hashServiceImpl.hash(fileName));
-		} catch (NoSuchAlgorithmException e) {
-			throw new RuntimeException("Unable to calculate hash: " + e.getMessage());
+	private static boolean fill(ReadableByteChannel data, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining() && data.read(buffer) >= 0) {
+			// Чтение до заполнения буфера или конца данных
 		}
+		return buffer.position() > 0;
 	}
 
 	/**
-	 * Вычисление иерархии директорий.
+	 * Вычисление контрольной суммы части массива.
 	 */
-	private Path getDirectoriesPath(String hash) {
-		String directories;
-		int directoriesPartLength = countDirectoriesPartLength();
-		if (directoriesPartLength >= hash.length()) {
-			directories = hash.substring(0, hash.length() - storageProperties.getMinFileNameLength());
-		} else {
-			directories = hash.substring(0, directoriesPartLength);
-		}
-		return createPath(directories);
+	private static int crc32c(byte[] array, int from, int to) {
+		CRC32C crc32c = new CRC32C();
+		crc32c.update(array, from, to - from);
+		return (int) crc32c.getValue();
 	}
 
 	/**
-	 * Метод для создания пути из строки.
-	 * Данный метод не создаёт фактические директории внутри файловой системы, а лишь модифицирует переданную строку.
-	 * Строка будет разделена системным символом разделения директорий на блоки указанной длины
+	 * Получение управления загрузками частями.
 	 */
-	private Path createPath(String source) {
-		StringBuilder resultPath = new StringBuilder(source);
-		int directoryNameLength = storageProperties.getDirectoryNameLength();
-		for (int i = directoryNameLength; i < resultPath.length(); i += directoryNameLength + 1) {
-			resultPath.insert(i, File.separator);
+	private UploadManager getUploadManager() {
+		if (uploadManager == null) {
+			throw new IllegalStateException("Chunked uploads are disabled");
 		}
-		return Paths.get(resultPath.toString());
+		return uploadManager;
 	}
 
 	/**
-	 * Метод для созданий директорий, иерархия которых будет удовлетворять переданному пути
+	 * Корневые директории всех томов, включая холодный уровень.
 	 */
-	private void createDirectories(Path path) throws IOException {
-		Path rootDirectory = storageProperties.getRootDirectory();
-		if (Files.notExists(rootDirectory)) {
-			Files.createDirectory(rootDirectory);
+	private List<Path> getStorageRoots() {
+		if (tierManager == null) {
+			return storageProperties.getRootDirectories();
 		}
-		Path curPath = rootDirectory;
-		for (Path curDirectory : path) {
-			curPath = curPath.resolve(curDirectory);
-			if (Files.notExists(curPath)) {
-				Files.createDirectory(curPath);
-			}
+		List<Path> roots = new ArrayList<>(storageProperties.getRootDirectories());
+		roots.add(tierManager.getColdDirectory());
+		return roots;
+	}
+
+	/**
+	 * Вычисление ключа распределения файла по томам и уровням.
+	 */
+	private String getRoutingKey(Path fileName) {
+		return VolumeSelector.routingKey(getHash(fileName));
+	}
+
+	/**
+	 * Вычисление хэша последней части имени файла, единого для сегментов, иерархии и блокировок.
+	 */
+	private String getHash(Path fileName) {
+		return countHash(fileName.getFileName().toString());
+	}
+
+	/**
+	 * Безопасное вычисление хэш-кода.
+	 */
+	private String countHash(String fileName) {
+		try {
+			return Base64.getEncoder().encodeToString(hashServiceImpl.hash(fileName));
+		} catch (NoSuchAlgorithmException e) {
+			throw new RuntimeException("Unable to calculate hash: " + e.getMessage());
 		}
 	}
+
+	/**
+	 * Вычисление пути сохранённого файла относительно корня тома по текущей схеме размещения.
+	 */
+	private Path getRelativePath(String hash) {
+		return storageLayout.getCurrent().getRelativePath(hash);
+	}
+
 }
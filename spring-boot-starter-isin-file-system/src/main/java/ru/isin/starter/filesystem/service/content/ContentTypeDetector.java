@@ -0,0 +1,268 @@
+package ru.isin.starter.filesystem.service.content;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * Определение типа содержимого по первым байтам данных и расширению имени файла.
+ * <p>
+ * Сигнатуры форматов собраны в префиксное дерево, поэтому начало данных сравнивается со всеми сигнатурами
+ * за один проход без выделения памяти. Для контейнерных форматов (zip, OLE, текст с BOM, XML)
+ * сигнатура не определяет тип документа, и если расширение известно, тип берётся по расширению.
+ * Если ни сигнатура, ни расширение не подошли, данные без управляющих символов считаются текстом
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+public class ContentTypeDetector {
+	/**
+	 * Тип содержимого, если определить его не удалось.
+	 */
+	public static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
+
+	/**
+	 * Тип содержимого текстовых данных.
+	 */
+	public static final String TEXT_CONTENT_TYPE = "text/plain";
+
+	private static final int BYTE_VALUES = 256;
+	private static final int TEXT_SNIFF_LENGTH = 512;
+	private static final String WILDCARD = "??";
+
+	private static final Set<String> CONTAINER_TYPES = Set.of(
+			"application/zip",
+			"application/x-ole-storage",
+			"application/xml",
+			TEXT_CONTENT_TYPE);
+
+	private static final String[][] EXTENSIONS = {
+			{"txt", TEXT_CONTENT_TYPE},
+			{"log", TEXT_CONTENT_TYPE},
+			{"csv", "text/csv"},
+			{"htm", "text/html"},
+			{"html", "text/html"},
+			{"css", "text/css"},
+			{"js", "text/javascript"},
+			{"md", "text/markdown"},
+			{"json", "application/json"},
+			{"xml", "application/xml"},
+			{"yml", "application/yaml"},
+			{"yaml", "application/yaml"},
+			{"svg", "image/svg+xml"},
+			{"pdf", "application/pdf"},
+			{"rtf", "application/rtf"},
+			{"png", "image/png"},
+			{"jpg", "image/jpeg"},
+			{"jpeg", "image/jpeg"},
+			{"gif", "image/gif"},
+			{"bmp", "image/bmp"},
+			{"webp", "image/webp"},
+			{"tif", "image/tiff"},
+			{"tiff", "image/tiff"},
+			{"ico", "image/x-icon"},
+			{"zip", "application/zip"},
+			{"jar", "application/java-archive"},
+			{"gz", "application/gzip"},
+			{"tar", "application/x-tar"},
+			{"7z", "application/x-7z-compressed"},
+			{"rar", "application/vnd.rar"},
+			{"mp3", "audio/mpeg"},
+			{"wav", "audio/wav"},
+			{"ogg", "application/ogg"},
+			{"flac", "audio/flac"},
+			{"mp4", "video/mp4"},
+			{"mov", "video/quicktime"},
+			{"avi", "video/x-msvideo"},
+			{"webm", "video/webm"},
+			{"doc", "application/msword"},
+			{"xls", "application/vnd.ms-excel"},
+			{"ppt", "application/vnd.ms-powerpoint"},
+			{"docx", "application/vnd.openxmlformats-officedocument.wordprocessingml.document"},
+			{"xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"},
+			{"pptx", "application/vnd.openxmlformats-officedocument.presentationml.presentation"},
+			{"odt", "application/vnd.oasis.opendocument.text"},
+			{"ods", "application/vnd.oasis.opendocument.spreadsheet"},
+			{"epub", "application/epub+zip"},
+			{"woff", "font/woff"},
+			{"woff2", "font/woff2"},
+			{"ttf", "font/ttf"},
+			{"otf", "font/otf"}};
+
+	private final Node root = new Node();
+
+	/**
+	 * Узел префиксного дерева сигнатур.
+	 */
+	private static class Node {
+		private Node[] next;
+		private Node any;
+		private String contentType;
+	}
+
+	/**
+	 * Констуктор.
+	 * Собирает дерево сигнатур распространённых форматов.
+	 */
+	public ContentTypeDetector() {
+		register("image/png", "89504E470D0A1A0A");
+		register("image/jpeg", "FFD8FF");
+		registerText("image/gif", "GIF87a");
+		registerText("image/gif", "GIF89a");
+		register("image/bmp", "424D????????00000000");
+		register("image/tiff", "49492A00");
+		register("image/tiff", "4D4D002A");
+		register("image/x-icon", "00000100");
+		registerText("application/pdf", "%PDF-");
+		register("application/zip", "504B0304");
+		register("application/zip", "504B0506");
+		register("application/gzip", "1F8B");
+		registerText("application/x-bzip2", "BZh");
+		register("application/x-7z-compressed", "377ABCAF271C");
+		register("application/vnd.rar", "526172211A07");
+		register("application/x-ole-storage", "D0CF11E0A1B11AE1");
+		register("application/x-executable", "7F454C46");
+		register("application/java-vm", "CAFEBABE");
+		registerText("application/ogg", "OggS");
+		registerText("audio/mpeg", "ID3");
+		register("audio/mpeg", "FFFB");
+		registerText("audio/flac", "fLaC");
+		register("audio/wav", "52494646????????57415645");
+		register("image/webp", "52494646????????57454250");
+		register("video/x-msvideo", "52494646????????41564920");
+		register("video/mp4", "????????66747970");
+		register("video/quicktime", "????????6674797071742020");
+		register("video/webm", "1A45DFA3");
+		registerText("font/woff", "wOFF");
+		registerText("font/woff2", "wOF2");
+		registerText("application/rtf", "{\\rtf");
+		registerText("application/xml", "<?xml");
+		registerText("text/html", "<!DOCTYPE html");
+		registerText("text/html", "<!doctype html");
+		registerText("text/html", "<html");
+		register(TEXT_CONTENT_TYPE, "EFBBBF");
+		register(TEXT_CONTENT_TYPE, "FFFE");
+		register(TEXT_CONTENT_TYPE, "FEFF");
+	}
+
+	/**
+	 * Метод для определения типа содержимого.
+	 *
+	 * @param content  данные файла
+	 * @param fileName имя файла
+	 * @return тип содержимого
+	 */
+	public String detect(byte[] content, String fileName) {
+		return detect(content, content.length, fileName);
+	}
+
+	/**
+	 * Метод для определения типа содержимого по началу данных.
+	 *
+	 * @param head     начало данных файла
+	 * @param length   количество байт начала данных
+	 * @param fileName имя файла или null
+	 * @return тип содержимого
+	 */
+	public String detect(byte[] head, int length, String fileName) {
+		String signatureType = match(root, head, 0, length);
+		if (signatureType != null && !CONTAINER_TYPES.contains(signatureType)) {
+			return signatureType;
+		}
+		String extensionType = fileName == null ? null : byExtension(fileName);
+		if (extensionType != null) {
+			return extensionType;
+		}
+		if (signatureType != null) {
+			return signatureType;
+		}
+		return length > 0 && isText(head, length) ? TEXT_CONTENT_TYPE : DEFAULT_CONTENT_TYPE;
+	}
+
+	/**
+	 * Добавление сигнатуры в шестнадцатеричной записи, "??" обозначает любой байт.
+	 */
+	private void register(String contentType, String hexSignature) {
+		Node node = root;
+		for (int i = 0; i < hexSignature.length(); i += 2) {
+			String digits = hexSignature.substring(i, i + 2);
+			if (WILDCARD.equals(digits)) {
+				if (node.any == null) {
+					node.any = new Node();
+				}
+				node = node.any;
+			} else {
+				node = child(node, Integer.parseInt(digits, 16));
+			}
+		}
+		node.contentType = contentType;
+	}
+
+	/**
+	 * Добавление текстовой сигнатуры.
+	 */
+	private void registerText(String contentType, String signature) {
+		Node node = root;
+		for (byte b : signature.getBytes(StandardCharsets.US_ASCII)) {
+			node = child(node, b & 0xFF);
+		}
+		node.contentType = contentType;
+	}
+
+	/**
+	 * Получение или создание дочернего узла для значения байта.
+	 */
+	private static Node child(Node node, int value) {
+		if (node.next == null) {
+			node.next = new Node[BYTE_VALUES];
+		}
+		if (node.next[value] == null) {
+			node.next[value] = new Node();
+		}
+		return node.next[value];
+	}
+
+	/**
+	 * Поиск самой длинной сигнатуры, совпадающей с началом данных.
+	 */
+	private static String match(Node node, byte[] head, int index, int length) {
+		String longest = null;
+		if (index < length) {
+			Node exact = node.next == null ? null : node.next[head[index] & 0xFF];
+			if (exact != null) {
+				longest = match(exact, head, index + 1, length);
+			}
+			if (longest == null && node.any != null) {
+				longest = match(node.any, head, index + 1, length);
+			}
+		}
+		return longest == null ? node.contentType : longest;
+	}
+
+	/**
+	 * Поиск типа по расширению имени файла без выделения памяти под расширение.
+	 */
+	private static String byExtension(String fileName) {
+		for (String[] extension : EXTENSIONS) {
+			int start = fileName.length() - extension[0].length();
+			if (start > 0 && fileName.charAt(start - 1) == '.' &&
+					fileName.regionMatches(true, start, extension[0], 0, extension[0].length())) {
+				return extension[1];
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Проверка отсутствия управляющих символов в начале данных.
+	 */
+	private static boolean isText(byte[] head, int length) {
+		int limit = Math.min(length, TEXT_SNIFF_LENGTH);
+		for (int i = 0; i < limit; i++) {
+			int b = head[i] & 0xFF;
+			if (b < 0x20 && b != '\t' && b != '\n' && b != '\r' && b != '\f' && b != 0x1B || b == 0x7F) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,34 @@
+package ru.isin.starter.filesystem.service.integrity;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.nio.file.Path;
+
+/**
+ * Событие об обнаружении повреждённого файла фоновой проверкой.
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+@Getter
+public class ChecksumMismatchEvent extends ApplicationEvent {
+	private static final long serialVersionUID = 1L;
+
+	private final transient Path path;
+	private final int expected;
+	private final int actual;
+
+	/**
+	 * Констуктор.
+	 *
+	 * @param source   источник события
+	 * @param mismatch исключение с описанием несовпадения
+	 */
+	public ChecksumMismatchEvent(Object source, ChecksumMismatchException mismatch) {
+		super(source);
+		this.path = mismatch.getPath();
+		this.expected = mismatch.getExpected();
+		this.actual = mismatch.getActual();
+	}
+}
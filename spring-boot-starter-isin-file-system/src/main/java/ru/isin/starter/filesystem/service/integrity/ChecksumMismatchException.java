@@ -0,0 +1,35 @@
+package ru.isin.starter.filesystem.service.integrity;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Исключение, сигнализирующее о несовпадении контрольной суммы прочитанного содержимого с сохранённой.
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+@Getter
+public class ChecksumMismatchException extends IOException {
+	private static final long serialVersionUID = 1L;
+
+	private final transient Path path;
+	private final int expected;
+	private final int actual;
+
+	/**
+	 * Констуктор.
+	 *
+	 * @param path     путь к повреждённому файлу или сегменту
+	 * @param expected сохранённая контрольная сумма
+	 * @param actual   контрольная сумма прочитанного содержимого
+	 */
+	public ChecksumMismatchException(Path path, int expected, int actual) {
+		super(String.format("Checksum mismatch in %s: expected %08x, actual %08x", path, expected, actual));
+		this.path = path;
+		this.expected = expected;
+		this.actual = actual;
+	}
+}
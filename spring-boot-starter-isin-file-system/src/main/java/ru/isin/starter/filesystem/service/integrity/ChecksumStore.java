@@ -0,0 +1,255 @@
+package ru.isin.starter.filesystem.service.integrity;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.isin.starter.filesystem.properties.IntegrityProperties;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.UserDefinedFileAttributeView;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32C;
+
+/**
+ * Хранение контрольных сумм CRC32C сохранённых файлов.
+ * <p>
+ * Контрольная сумма записывается в пользовательский расширенный атрибут файла,
+ * поэтому переносится вместе с файлом при перемещении между томами и уровнями.
+ * Если файловая система не поддерживает расширенные атрибуты, контрольные суммы не сохраняются
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+@Slf4j
+public class ChecksumStore {
+	private static final String ATTRIBUTE_NAME = "isin.crc32c";
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final int REFLECTED_POLYNOMIAL = 0x82F63B78;
+	private static final int ZERO_BYTE_POWER = 3;
+	private static final int[] X_POWERS = new int[Long.SIZE + ZERO_BYTE_POWER];
+
+	static {
+		// Степени x^(2^n) по модулю порождающего многочлена для сдвига контрольной суммы на нулевые байты.
+		// Байт содержит 2^3 бит, поэтому для сдвига на любую длину типа long нужны степени до x^(2^66)
+		int power = 1 << 30;
+		X_POWERS[0] = power;
+		for (int n = 1; n < X_POWERS.length; n++) {
+			power = multiply(power, power);
+			X_POWERS[n] = power;
+		}
+	}
+
+	private final IntegrityProperties integrityProperties;
+	private final AtomicBoolean unsupportedReported = new AtomicBoolean();
+
+	/**
+	 * Констуктор.
+	 *
+	 * @param integrityProperties параметры контроля целостности
+	 */
+	public ChecksumStore(IntegrityProperties integrityProperties) {
+		this.integrityProperties = integrityProperties;
+	}
+
+	/**
+	 * Метод для вычисления контрольной суммы.
+	 *
+	 * @param content содержимое файла
+	 * @return контрольная сумма CRC32C
+	 */
+	public static int compute(byte[] content) {
+		CRC32C crc32c = new CRC32C();
+		crc32c.update(content);
+		return (int) crc32c.getValue();
+	}
+
+	/**
+	 * Метод для вычисления контрольной суммы файла без чтения его целиком в память.
+	 *
+	 * @param file путь к файлу
+	 * @return контрольная сумма CRC32C
+	 * @throws IOException в случае ошибки чтения файла
+	 */
+	public static int compute(Path file) throws IOException {
+		CRC32C crc32c = new CRC32C();
+		byte[] buffer = new byte[BUFFER_SIZE];
+		try (InputStream inputStream = Files.newInputStream(file)) {
+			int read;
+			while ((read = inputStream.read(buffer)) != -1) {
+				crc32c.update(buffer, 0, read);
+			}
+		}
+		return (int) crc32c.getValue();
+	}
+
+	/**
+	 * Метод для вычисления контрольной суммы файла после дозаписи без повторного чтения файла.
+	 *
+	 * @param checksum         контрольная сумма файла до дозаписи
+	 * @param appendedChecksum контрольная сумма дописанных данных
+	 * @param appendedLength   количество дописанных байт
+	 * @return контрольная сумма CRC32C файла с дописанными данными
+	 */
+	public static int combine(int checksum, int appendedChecksum, long appendedLength) {
+		return shift(checksum, appendedLength) ^ appendedChecksum;
+	}
+
+	/**
+	 * Метод для вычисления контрольной суммы файла после замены части данных без повторного чтения файла.
+	 * Используется линейность CRC: замена меняет контрольную сумму на разность контрольных сумм
+	 * старых и новых данных, сдвинутую на длину данных после заменённой части.
+	 *
+	 * @param checksum         контрольная сумма файла до замены
+	 * @param replacedChecksum контрольная сумма заменённых данных
+	 * @param newChecksum      контрольная сумма новых данных той же длины
+	 * @param tailLength       количество байт файла после заменённой части
+	 * @return контрольная сумма CRC32C файла с новыми данными
+	 */
+	public static int replace(int checksum, int replacedChecksum, int newChecksum, long tailLength) {
+		return checksum ^ shift(replacedChecksum ^ newChecksum, tailLength);
+	}
+
+	/**
+	 * Метод для проверки необходимости сверять контрольную сумму при чтении.
+	 *
+	 * @return true, если контрольная сумма проверяется при каждом чтении
+	 */
+	public boolean isVerifyOnRead() {
+		return integrityProperties.isVerifyOnRead();
+	}
+
+	/**
+	 * Метод для сохранения контрольной суммы файла.
+	 *
+	 * @param file     путь к файлу
+	 * @param checksum контрольная сумма
+	 * @throws IOException в случае ошибки записи атрибута
+	 */
+	public void write(Path file, int checksum) throws IOException {
+		UserDefinedFileAttributeView view = getView(file);
+		if (view == null) {
+			return;
+		}
+		try {
+			view.write(ATTRIBUTE_NAME, ByteBuffer.allocate(Integer.BYTES).putInt(0, checksum));
+		} catch (UnsupportedOperationException e) {
+			reportUnsupported(file, e);
+		} catch (FileSystemException e) {
+			// Отсутствие поддержки атрибутов файловой системой не имеет отдельного типа исключения
+			if (e.getClass() != FileSystemException.class) {
+				throw e;
+			}
+			reportUnsupported(file, e);
+		}
+	}
+
+	/**
+	 * Метод для получения сохранённой контрольной суммы файла.
+	 *
+	 * @param file путь к файлу
+	 * @return контрольная сумма или null, если она не сохранена
+	 * @throws IOException в случае ошибки чтения атрибута
+	 */
+	public Integer read(Path file) throws IOException {
+		UserDefinedFileAttributeView view = getView(file);
+		if (view == null) {
+			return null;
+		}
+		try {
+			if (!view.list().contains(ATTRIBUTE_NAME) || view.size(ATTRIBUTE_NAME) != Integer.BYTES) {
+				return null;
+			}
+			ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES);
+			view.read(ATTRIBUTE_NAME, buffer);
+			return buffer.getInt(0);
+		} catch (UnsupportedOperationException e) {
+			reportUnsupported(file, e);
+			return null;
+		}
+	}
+
+	/**
+	 * Метод для сверки прочитанного содержимого с сохранённой контрольной суммой.
+	 * Файлы без сохранённой контрольной суммы не проверяются.
+	 *
+	 * @param file    путь к файлу
+	 * @param content прочитанное содержимое
+	 * @throws ChecksumMismatchException если контрольные суммы не совпадают
+	 * @throws IOException               в случае ошибки чтения атрибута
+	 */
+	public void verify(Path file, byte[] content) throws IOException {
+		verify(file, compute(content));
+	}
+
+	/**
+	 * Метод для сверки вычисленной контрольной суммы с сохранённой.
+	 *
+	 * @param file     путь к файлу
+	 * @param checksum вычисленная контрольная сумма
+	 * @return false, если контрольная сумма файла не сохранена
+	 * @throws ChecksumMismatchException если контрольные суммы не совпадают
+	 * @throws IOException               в случае ошибки чтения атрибута
+	 */
+	public boolean verify(Path file, int checksum) throws IOException {
+		Integer expected = read(file);
+		if (expected == null) {
+			return false;
+		}
+		if (expected != checksum) {
+			throw new ChecksumMismatchException(file, expected, checksum);
+		}
+		return true;
+	}
+
+	/**
+	 * Получение представления расширенных атрибутов файла.
+	 */
+	private UserDefinedFileAttributeView getView(Path file) {
+		UserDefinedFileAttributeView view = Files.getFileAttributeView(file, UserDefinedFileAttributeView.class);
+		if (view == null) {
+			reportUnsupported(file, null);
+		}
+		return view;
+	}
+
+	/**
+	 * Однократное предупреждение об отсутствии поддержки расширенных атрибутов.
+	 */
+	private void reportUnsupported(Path file, Exception e) {
+		if (unsupportedReported.compareAndSet(false, true)) {
+			log.warn("File system of {} does not support user attributes, checksums are not stored{}",
+					file, e == null ? "" : ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Сдвиг регистра CRC на заданное количество нулевых байт за логарифмическое от него время.
+	 */
+	private static int shift(int crc, long zeroBytes) {
+		int power = 1 << 31;
+		int n = ZERO_BYTE_POWER;
+		for (long bits = zeroBytes; bits != 0; bits >>>= 1, n++) {
+			if ((bits & 1) != 0) {
+				power = multiply(X_POWERS[n], power);
+			}
+		}
+		return multiply(power, crc);
+	}
+
+	/**
+	 * Умножение многочленов в отражённой записи по модулю порождающего многочлена CRC32C.
+	 */
+	private static int multiply(int a, int b) {
+		int product = 0;
+		for (int mask = 1 << 31; mask != 0; mask >>>= 1) {
+			if ((a & mask) != 0) {
+				product ^= b;
+			}
+			b = (b & 1) != 0 ? (b >>> 1) ^ REFLECTED_POLYNOMIAL : b >>> 1;
+		}
+		return product;
+	}
+}
@@ -0,0 +1,272 @@
+package ru.isin.starter.filesystem.service.integrity;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import ru.isin.starter.filesystem.domain.FileDTO;
+import ru.isin.starter.filesystem.domain.ScrubReportDTO;
+import ru.isin.starter.filesystem.properties.IntegrityProperties;
+import ru.isin.starter.filesystem.service.StorageService;
+import ru.isin.starter.filesystem.service.io.IoClass;
+import ru.isin.starter.filesystem.service.io.IoScheduler;
+import ru.isin.starter.filesystem.service.io.TokenBucket;
+import ru.isin.starter.filesystem.service.lock.FileLocks;
+import ru.isin.starter.filesystem.service.pack.SegmentStore;
+import ru.isin.starter.filesystem.service.volume.VolumeSelector;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Фоновая проверка целостности сохранённых файлов.
+ * <p>
+ * Все файлы хранилища перечитываются несколькими потоками с общим ограничением скорости чтения,
+ * контрольная сумма прочитанного содержимого сверяется с сохранённой.
+ * Об обнаруженных повреждениях сообщается событиями {@link ChecksumMismatchEvent}
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+@Slf4j
+public class IntegrityScrubber implements Closeable {
+	private static final String SCRUBBER_THREAD_NAME = "isin-integrity-scrubber";
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final IntegrityProperties integrityProperties;
+	private final ChecksumStore checksumStore;
+	private final StorageService storageService;
+	private final SegmentStore segmentStore;
+	private final ApplicationEventPublisher eventPublisher;
+	private final IoScheduler ioScheduler;
+	private final FileLocks fileLocks;
+	private final ScheduledExecutorService scheduler;
+	private volatile ForkJoinPool workers;
+	private volatile ScrubReportDTO lastReport;
+
+	/**
+	 * Счётчики текущей проверки.
+	 */
+	private static class Progress {
+		private final AtomicLong scanned = new AtomicLong();
+		private final AtomicLong bytes = new AtomicLong();
+		private final AtomicLong mismatched = new AtomicLong();
+		private final AtomicLong unverified = new AtomicLong();
+		private final AtomicLong failed = new AtomicLong();
+	}
+
+	/**
+	 * Констуктор.
+	 * Запускает периодическую фоновую проверку.
+	 *
+	 * @param integrityProperties параметры контроля целостности
+	 * @param checksumStore       хранение контрольных сумм
+	 * @param storageService      сервис для сохранения файлов, используется для перечисления файлов
+	 * @param segmentStore        хранилище упакованных небольших файлов или null, если упаковка отключена
+	 * @param eventPublisher      получатель событий о повреждённых файлах или null
+	 * @param ioScheduler         планировщик ввода-вывода, проверка выполняется в классе обслуживания
+	 * @param fileLocks           блокировки файлов, общие с сервисом сохранения
+	 */
+	public IntegrityScrubber(IntegrityProperties integrityProperties,
+							 ChecksumStore checksumStore,
+							 StorageService storageService,
+							 SegmentStore segmentStore,
+							 ApplicationEventPublisher eventPublisher,
+							 IoScheduler ioScheduler,
+							 FileLocks fileLocks) {
+		this.integrityProperties = integrityProperties;
+		this.checksumStore = checksumStore;
+		this.storageService = storageService;
+		this.segmentStore = segmentStore;
+		this.eventPublisher = eventPublisher;
+		this.ioScheduler = ioScheduler;
+		this.fileLocks = fileLocks;
+
+		scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, SCRUBBER_THREAD_NAME);
+			thread.setDaemon(true);
+			return thread;
+		});
+		long interval = integrityProperties.getScrubInterval().toMillis();
+		if (interval > 0) {
+			scheduler.scheduleWithFixedDelay(this::scrub, interval, interval, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Метод для получения результатов последней завершённой проверки.
+	 *
+	 * @return результаты проверки или null, если проверка ещё не выполнялась
+	 */
+	public ScrubReportDTO getLastReport() {
+		return lastReport;
+	}
+
+	/**
+	 * Метод для проверки целостности всех сохранённых файлов.
+	 *
+	 * @return результаты проверки
+	 */
+	public synchronized ScrubReportDTO scrub() {
+		TokenBucket bandwidth = new TokenBucket(integrityProperties.getScrubBandwidth().toBytes());
+		Progress progress = new Progress();
+		workers = new ForkJoinPool(Math.max(1, integrityProperties.getScrubParallelism()));
+		try {
+			// Параллельный поток выполняется в пуле, из которого он запущен
+			workers.submit(() -> {
+				try (Stream<FileDTO> files = storageService.stream()) {
+					files.parallel().forEach(file -> scrubFile(file, bandwidth, progress));
+				}
+				if (segmentStore != null) {
+					segmentStore.keys().parallelStream().forEach(key -> scrubPacked(key, bandwidth, progress));
+				}
+				return null;
+			}).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			log.warn("Integrity scrub interrupted");
+		} catch (ExecutionException e) {
+			log.error("Integrity scrub aborted: {}", e.getCause().getMessage());
+		} finally {
+			workers.shutdownNow();
+		}
+
+		ScrubReportDTO report = ScrubReportDTO.builder().
+				scanned(progress.scanned.get()).
+				bytes(progress.bytes.get()).
+				mismatched(progress.mismatched.get()).
+				unverified(progress.unverified.get()).
+				failed(progress.failed.get()).
+				build();
+		log.info("Integrity scrub finished: {} files scanned, {} bytes read, {} mismatched, {} unverified, {} failed",
+				report.getScanned(), report.getBytes(), report.getMismatched(), report.getUnverified(),
+				report.getFailed());
+		lastReport = report;
+		return report;
+	}
+
+	/**
+	 * Остановка фоновой проверки.
+	 */
+	@Override
+	public void close() {
+		scheduler.shutdownNow();
+		ForkJoinPool current = workers;
+		if (current != null) {
+			current.shutdownNow();
+		}
+	}
+
+	/**
+	 * Проверка файла иерархии.
+	 * Упакованные файлы отсутствуют в иерархии и проверяются отдельно, удалённые во время проверки файлы пропускаются.
+	 * Файл читается без блокировки, поэтому несовпадение контрольной суммы перепроверяется под блокировкой чтения:
+	 * файл мог изменяться во время проверки
+	 */
+	private void scrubFile(FileDTO fileDTO, TokenBucket bandwidth, Progress progress) {
+		Path file = fileDTO.getPath();
+		if (file == null) {
+			return;
+		}
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			CRC32C crc32c = new CRC32C();
+			ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+			int read;
+			while ((read = channel.read(buffer)) >= 0) {
+				bandwidth.acquire(read);
+				ioScheduler.acquire(IoClass.MAINTENANCE, read);
+				progress.bytes.addAndGet(read);
+				buffer.flip();
+				crc32c.update(buffer);
+				buffer.clear();
+			}
+			progress.scanned.incrementAndGet();
+			if (!checksumStore.verify(file, (int) crc32c.getValue())) {
+				progress.unverified.incrementAndGet();
+			}
+		} catch (NoSuchFileException e) {
+			// Удалённый файл
+		} catch (ChecksumMismatchException e) {
+			recheckFile(fileDTO, progress);
+		} catch (InterruptedIOException e) {
+			throw new UncheckedIOException(e);
+		} catch (IOException e) {
+			log.error("Unable to scrub {}: {}", file, e.getMessage());
+			progress.failed.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Повторная проверка файла, контрольная сумма которого не совпала, под блокировкой чтения.
+	 */
+	private void recheckFile(FileDTO fileDTO, Progress progress) {
+		Path file = fileDTO.getPath();
+		try {
+			ioScheduler.acquire(IoClass.MAINTENANCE, Files.size(file));
+			fileLocks.read(VolumeSelector.routingKey(fileDTO.getName()), () -> {
+				checksumStore.verify(file, ChecksumStore.compute(file));
+				return null;
+			});
+		} catch (NoSuchFileException e) {
+			// Файл удалён или перенесён во время проверки
+		} catch (ChecksumMismatchException e) {
+			reportMismatch(e, progress);
+		} catch (InterruptedIOException e) {
+			throw new UncheckedIOException(e);
+		} catch (IOException e) {
+			log.error("Unable to scrub {}: {}", file, e.getMessage());
+			progress.failed.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Проверка упакованного файла по контрольной сумме записи сегмента.
+	 */
+	private void scrubPacked(String key, TokenBucket bandwidth, Progress progress) {
+		try {
+			long size = segmentStore.getSize(key);
+			if (size < 0) {
+				return;
+			}
+			bandwidth.acquire(size);
+			ioScheduler.acquire(IoClass.MAINTENANCE, size);
+			if (segmentStore.read(key, true) != null) {
+				progress.scanned.incrementAndGet();
+				progress.bytes.addAndGet(size);
+			}
+		} catch (ChecksumMismatchException e) {
+			progress.scanned.incrementAndGet();
+			reportMismatch(e, progress);
+		} catch (InterruptedIOException e) {
+			throw new UncheckedIOException(e);
+		} catch (IOException e) {
+			log.error("Unable to scrub packed file {}: {}", key, e.getMessage());
+			progress.failed.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Учёт и публикация обнаруженного повреждения.
+	 */
+	private void reportMismatch(ChecksumMismatchException mismatch, Progress progress) {
+		log.error(mismatch.getMessage());
+		progress.mismatched.incrementAndGet();
+		if (eventPublisher != null) {
+			eventPublisher.publishEvent(new ChecksumMismatchEvent(this, mismatch));
+		}
+	}
+}
@@ -0,0 +1,24 @@
+package ru.isin.starter.filesystem.service.io;
+
+/**
+ * Классы приоритета операций ввода-вывода в порядке убывания приоритета.
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+public enum IoClass {
+	/**
+	 * Чтение и сохранение файлов по запросу пользователя.
+	 */
+	INTERACTIVE,
+
+	/**
+	 * Массовые операции: перечисление файлов и обработка их наборов.
+	 */
+	BATCH,
+
+	/**
+	 * Фоновое обслуживание: очистка, уплотнение, проверка и перенос файлов.
+	 */
+	MAINTENANCE
+}
@@ -0,0 +1,160 @@
+package ru.isin.starter.filesystem.service.io;
+
+import ru.isin.starter.filesystem.properties.StorageProperties;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Планировщик операций ввода-вывода с классами приоритета.
+ * <p>
+ * Для каждого класса скорость ограничивается маркерными корзинами по объёму данных и количеству операций.
+ * Пока выполняются операции класса с большим приоритетом, операции остальных классов уступают им,
+ * но не дольше заданного времени, поэтому фоновое обслуживание не останавливается полностью
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+public class IoScheduler {
+	private final Map<IoClass, TokenBucket> bandwidth = new EnumMap<>(IoClass.class);
+	private final Map<IoClass, TokenBucket> iops = new EnumMap<>(IoClass.class);
+	private final AtomicIntegerArray inFlight = new AtomicIntegerArray(IoClass.values().length);
+	private final Object monitor = new Object();
+	private final long maxYieldNanos;
+
+	/**
+	 * Операция ввода-вывода.
+	 *
+	 * @param <T> тип результата операции
+	 */
+	@FunctionalInterface
+	public interface IoOperation<T> {
+		/**
+		 * Выполнение операции.
+		 *
+		 * @return результат операции
+		 * @throws IOException в случае ошибки ввода-вывода
+		 */
+		T execute() throws IOException;
+	}
+
+	/**
+	 * Констуктор планировщика без ограничений скорости.
+	 */
+	public IoScheduler() {
+		this(new StorageProperties.Io(null, null, null, null));
+	}
+
+	/**
+	 * Констуктор.
+	 *
+	 * @param io параметры планирования операций ввода-вывода
+	 */
+	public IoScheduler(StorageProperties.Io io) {
+		register(IoClass.INTERACTIVE, io.getInteractive());
+		register(IoClass.BATCH, io.getBatch());
+		register(IoClass.MAINTENANCE, io.getMaintenance());
+		this.maxYieldNanos = io.getMaxYieldTime().toNanos();
+	}
+
+	/**
+	 * Метод для выполнения операции в указанном классе.
+	 * Пока операция ожидает своей очереди или выполняется, операции классов с меньшим приоритетом уступают ей.
+	 *
+	 * @param ioClass   класс приоритета
+	 * @param bytes     ожидаемый объём читаемых или записываемых данных
+	 * @param operation операция
+	 * @param <T>       тип результата операции
+	 * @return результат операции
+	 * @throws IOException в случае ошибки операции или прерывания ожидания
+	 */
+	public <T> T execute(IoClass ioClass, long bytes, IoOperation<T> operation) throws IOException {
+		int index = ioClass.ordinal();
+		inFlight.incrementAndGet(index);
+		try {
+			acquire(ioClass, bytes);
+			return operation.execute();
+		} finally {
+			if (inFlight.decrementAndGet(index) == 0) {
+				synchronized (monitor) {
+					monitor.notifyAll();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Метод для получения разрешения на одну операцию ввода-вывода.
+	 * Используется длительными операциями, которые выполняют ввод-вывод частями.
+	 *
+	 * @param ioClass класс приоритета
+	 * @param bytes   объём читаемых или записываемых данных
+	 * @throws InterruptedIOException в случае прерывания ожидания
+	 */
+	public void acquire(IoClass ioClass, long bytes) throws InterruptedIOException {
+		yieldToHigherPriority(ioClass);
+		iops.get(ioClass).acquire(1);
+		charge(ioClass, bytes);
+	}
+
+	/**
+	 * Метод для учёта объёма данных, который стал известен после выполнения операции.
+	 *
+	 * @param ioClass класс приоритета
+	 * @param bytes   объём прочитанных или записанных данных
+	 * @throws InterruptedIOException в случае прерывания ожидания
+	 */
+	public void charge(IoClass ioClass, long bytes) throws InterruptedIOException {
+		if (bytes > 0) {
+			bandwidth.get(ioClass).acquire(bytes);
+		}
+	}
+
+	/**
+	 * Регистрация ограничений класса.
+	 */
+	private void register(IoClass ioClass, StorageProperties.IoLimit limit) {
+		bandwidth.put(ioClass, new TokenBucket(limit.getBandwidth().toBytes()));
+		iops.put(ioClass, new TokenBucket(limit.getIops()));
+	}
+
+	/**
+	 * Ожидание завершения операций классов с большим приоритетом, но не дольше заданного времени.
+	 */
+	private void yieldToHigherPriority(IoClass ioClass) throws InterruptedIOException {
+		if (!hasHigherPriorityInFlight(ioClass)) {
+			return;
+		}
+		long deadline = System.nanoTime() + maxYieldNanos;
+		synchronized (monitor) {
+			while (hasHigherPriorityInFlight(ioClass)) {
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0) {
+					return;
+				}
+				try {
+					TimeUnit.NANOSECONDS.timedWait(monitor, remaining);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("Interrupted while yielding to higher priority I/O");
+				}
+			}
+		}
+	}
+
+	/**
+	 * Проверка наличия выполняющихся операций классов с большим приоритетом.
+	 */
+	private boolean hasHigherPriorityInFlight(IoClass ioClass) {
+		for (int i = 0; i < ioClass.ordinal(); i++) {
+			if (inFlight.get(i) > 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
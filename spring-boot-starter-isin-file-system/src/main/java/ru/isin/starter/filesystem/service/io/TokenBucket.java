@@ -0,0 +1,82 @@
+package ru.isin.starter.filesystem.service.io;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ограничение скорости по алгоритму маркерной корзины.
+ * <p>
+ * Корзина пополняется с заданной скоростью и вмещает запас маркеров на одну секунду.
+ * Запрос большего количества маркеров, чем есть в корзине, уводит её в долг,
+ * который вызывающий поток отсыпает сразу, а следующие потоки — после него
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+public class TokenBucket {
+	private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+	private final double rate;
+	private double tokens;
+	private long refilledAt;
+
+	/**
+	 * Констуктор.
+	 *
+	 * @param rate количество маркеров в секунду; нулевое или отрицательное значение снимает ограничение
+	 */
+	public TokenBucket(double rate) {
+		this.rate = rate;
+		this.tokens = rate;
+		this.refilledAt = System.nanoTime();
+	}
+
+	/**
+	 * Метод для проверки наличия ограничения.
+	 *
+	 * @return true, если скорость не ограничена
+	 */
+	public boolean isUnlimited() {
+		return rate <= 0;
+	}
+
+	/**
+	 * Метод для получения маркеров с ожиданием.
+	 *
+	 * @param permits количество маркеров
+	 * @throws InterruptedIOException в случае прерывания ожидающего потока
+	 */
+	public void acquire(long permits) throws InterruptedIOException {
+		long delay = reserve(permits);
+		if (delay <= 0) {
+			return;
+		}
+		try {
+			TimeUnit.NANOSECONDS.sleep(delay);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for I/O budget");
+		}
+	}
+
+	/**
+	 * Списание маркеров и вычисление времени ожидания в наносекундах.
+	 */
+	private synchronized long reserve(long permits) {
+		if (isUnlimited()) {
+			return 0;
+		}
+		refill();
+		tokens -= permits;
+		return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / rate * NANOS_PER_SECOND);
+	}
+
+	/**
+	 * Пополнение корзины за время, прошедшее с последнего пополнения.
+	 */
+	private void refill() {
+		long now = System.nanoTime();
+		tokens = Math.min(rate, tokens + (now - refilledAt) * rate / NANOS_PER_SECOND);
+		refilledAt = now;
+	}
+}
@@ -0,0 +1,258 @@
+package ru.isin.starter.filesystem.service.layout;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import ru.isin.starter.filesystem.properties.StorageProperties;
+import ru.isin.starter.filesystem.service.io.IoScheduler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Схема размещения файлов в иерархии директорий.
+ * <p>
+ * Начало хэша имени файла делится на директории заданной длины, остаток хэша становится именем файла.
+ * Символ '/' в хэше Base64 также разделяет директории, а соседние разделители схлопываются,
+ * поэтому восстановление хэшей по пути выполняется перебором мест схлопнутых символов
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public class DirectoryLayout {
+	private static final char HASH_SEPARATOR = '/';
+	private static final char TEMPORARY_SUFFIX_START = '.';
+	private static final int MAX_COLLAPSED_SEPARATORS = 6;
+
+	/**
+	 * Уровень вложенности директорий.
+	 */
+	private final int directoryNestingLevel;
+
+	/**
+	 * Длина имени одной директории.
+	 */
+	private final int directoryNameLength;
+
+	/**
+	 * Минимальная длина имени файла.
+	 */
+	private final int minFileNameLength;
+
+	/**
+	 * Констуктор.
+	 *
+	 * @param directoryNestingLevel уровень вложенности директорий
+	 * @param directoryNameLength   длина имени одной директории
+	 * @param minFileNameLength     минимальная длина имени файла
+	 */
+	public DirectoryLayout(int directoryNestingLevel, int directoryNameLength, int minFileNameLength) {
+		this.directoryNestingLevel = directoryNestingLevel;
+		this.directoryNameLength = directoryNameLength;
+		this.minFileNameLength = minFileNameLength;
+	}
+
+	/**
+	 * Метод для получения схемы размещения, заданной параметрами сохранения.
+	 *
+	 * @param storageProperties параметры сохранения
+	 * @return схема размещения
+	 */
+	public static DirectoryLayout of(StorageProperties storageProperties) {
+		return new DirectoryLayout(
+				storageProperties.getDirectoryNestingLevel(),
+				storageProperties.getDirectoryNameLength(),
+				storageProperties.getMinFileNameLength());
+	}
+
+	/**
+	 * Метод для получения предыдущей схемы размещения, заданной параметрами сохранения.
+	 *
+	 * @param storageProperties параметры сохранения
+	 * @return схема размещения или null, если файлы не переносятся из предыдущей схемы
+	 */
+	public static DirectoryLayout previousOf(StorageProperties storageProperties) {
+		StorageProperties.Layout previous = storageProperties.getPreviousLayout();
+		return previous == null ? null : new DirectoryLayout(
+				previous.getDirectoryNestingLevel(),
+				previous.getDirectoryNameLength(),
+				previous.getMinFileNameLength());
+	}
+
+	/**
+	 * Метод для проверки того, что файл иерархии является временным файлом записи, загрузки или переноса.
+	 * Имена сохранённых файлов состоят из символов Base64 и не содержат точки,
+	 * поэтому временные файлы создаются с суффиксом, начинающимся с точки
+	 *
+	 * @param file путь к файлу
+	 * @return true, если файл временный
+	 */
+	public static boolean isTemporary(Path file) {
+		Path fileName = file.getFileName();
+		return fileName != null && fileName.toString().indexOf(TEMPORARY_SUFFIX_START) >= 0;
+	}
+
+	/**
+	 * Метод для создания файла в директории иерархии вместе с недостающими директориями.
+	 * Пустые директории удаляются без блокировок, поэтому директория может быть удалена между её созданием
+	 * и созданием в ней файла. Тогда директории создаются повторно, пока файл не будет создан:
+	 * каждая повторная попытка означает, что директорию успели удалить, а после создания файла директория
+	 * уже не пуста и не удаляется. Если директория существует, ошибка операции не связана с удалением
+	 * и пробрасывается
+	 *
+	 * @param directory директория, в которой создаётся файл
+	 * @param operation операция, создающая файл в директории
+	 * @param <T>       тип результата операции
+	 * @return результат операции
+	 * @throws IOException в случае ошибки создания директорий или операции
+	 */
+	public static <T> T createInDirectory(Path directory, IoScheduler.IoOperation<T> operation) throws IOException {
+		while (true) {
+			try {
+				Files.createDirectories(directory);
+				return operation.execute();
+			} catch (NoSuchFileException e) {
+				if (Files.exists(directory)) {
+					throw e;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Метод для вычисления пути сохранённого файла относительно корня тома.
+	 * Символ '/' в хэше не должен делать путь абсолютным
+	 *
+	 * @param hash хэш имени файла
+	 * @return относительный путь
+	 */
+	public Path getRelativePath(String hash) {
+		Path relativePath = Paths.get(getRawPath(hash));
+		return relativePath.isAbsolute() ? relativePath.getRoot().relativize(relativePath) : relativePath;
+	}
+
+	/**
+	 * Метод для восстановления хэшей имён файлов по пути, вычисленному данной схемой.
+	 * Если символ '/' в хэше соседствует с разделителем директорий, одному пути соответствует несколько хэшей
+	 *
+	 * @param relativePath путь относительно корня тома
+	 * @param hashLength   длина хэшей имён файлов
+	 * @return хэши, для которых схема вычисляет данный путь, или пустое множество
+	 */
+	public Set<String> recoverHashes(Path relativePath, int hashLength) {
+		String path = relativePath.toString().replace(File.separatorChar, HASH_SEPARATOR);
+		char[] template = new char[hashLength];
+		Arrays.fill(template, 'a');
+		String rawTemplate = getRawPath(new String(template)).replace(File.separatorChar, HASH_SEPARATOR);
+
+		int collapsed = rawTemplate.length() - path.length();
+		if (collapsed < 0 || collapsed > MAX_COLLAPSED_SEPARATORS) {
+			return Set.of();
+		}
+		List<Integer> positions = new ArrayList<>();
+		positions.add(0);
+		for (int i = 0; i < path.length(); i++) {
+			if (path.charAt(i) == HASH_SEPARATOR) {
+				positions.add(i);
+			}
+		}
+		positions.add(path.length());
+
+		Set<String> hashes = new TreeSet<>();
+		collectHashes(path, rawTemplate, positions, 0, collapsed, relativePath, hashes);
+		return hashes;
+	}
+
+	/**
+	 * Перебор мест схлопнутых разделителей и проверка получившихся хэшей.
+	 */
+	private void collectHashes(String path, String rawTemplate, List<Integer> positions, int from, int remaining,
+							   Path relativePath, Set<String> hashes) {
+		if (remaining == 0) {
+			String hash = extractHash(path, rawTemplate);
+			if (hash != null && getRelativePath(hash).equals(relativePath)) {
+				hashes.add(hash);
+			}
+			return;
+		}
+		for (int i = from; i < positions.size(); i++) {
+			int position = positions.get(i);
+			String expanded = path.substring(0, position) + HASH_SEPARATOR + path.substring(position);
+			List<Integer> shifted = new ArrayList<>(positions.subList(0, i + 1));
+			for (int j = i + 1; j < positions.size(); j++) {
+				shifted.add(positions.get(j) + 1);
+			}
+			collectHashes(expanded, rawTemplate, shifted, i, remaining - 1, relativePath, hashes);
+		}
+	}
+
+	/**
+	 * Удаление вставленных схемой разделителей из несхлопнутого пути.
+	 */
+	private static String extractHash(String rawPath, String rawTemplate) {
+		StringBuilder hash = new StringBuilder(rawPath.length());
+		for (int i = 0; i < rawTemplate.length(); i++) {
+			boolean inserted = rawTemplate.charAt(i) == HASH_SEPARATOR;
+			if (inserted && rawPath.charAt(i) != HASH_SEPARATOR) {
+				return null;
+			}
+			if (!inserted) {
+				hash.append(rawPath.charAt(i));
+			}
+		}
+		return hash.toString();
+	}
+
+	/**
+	 * Вычисление пути до нормализации разделителей.
+	 */
+	private String getRawPath(String hash) {
+		return getDirectoriesPath(hash) + File.separator + hash.substring(countDirectoriesPartLength());
+	}
+
+	/**
+	 * Вычисление длины имени сохраняемого файла, отводимой для иерархии директорий.
+	 */
+	private int countDirectoriesPartLength() {
+		return directoryNestingLevel * directoryNameLength;
+	}
+
+	/**
+	 * Вычисление иерархии директорий.
+	 */
+	private String getDirectoriesPath(String hash) {
+		String directories;
+		int directoriesPartLength = countDirectoriesPartLength();
+		if (directoriesPartLength >= hash.length()) {
+			directories = hash.substring(0, hash.length() - minFileNameLength);
+		} else {
+			directories = hash.substring(0, directoriesPartLength);
+		}
+		return createPath(directories);
+	}
+
+	/**
+	 * Метод для создания пути из строки.
+	 * Данный метод не создаёт фактические директории внутри файловой системы, а лишь модифицирует переданную строку.
+	 * Строка будет разделена системным символом разделения директорий на блоки указанной длины
+	 */
+	private String createPath(String source) {
+		StringBuilder resultPath = new StringBuilder(source);
+		for (int i = directoryNameLength; i < resultPath.length(); i += directoryNameLength + 1) {
+			resultPath.insert(i, File.separator);
+		}
+		return resultPath.toString();
+	}
+}
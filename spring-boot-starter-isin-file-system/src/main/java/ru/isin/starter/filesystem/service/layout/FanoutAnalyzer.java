@@ -0,0 +1,210 @@
+package ru.isin.starter.filesystem.service.layout;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.isin.starter.filesystem.domain.FanoutLevelDTO;
+import ru.isin.starter.filesystem.domain.FanoutReportDTO;
+import ru.isin.starter.filesystem.properties.StorageProperties;
+import ru.isin.starter.filesystem.service.io.IoClass;
+import ru.isin.starter.filesystem.service.io.IoScheduler;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Инструмент для оценки заполненности директорий хранилища и подбора схемы размещения.
+ * <p>
+ * Иерархия просматривается по уровням: на каждом уровне параллельно читается случайная выборка директорий,
+ * по ней оцениваются количество директорий следующего уровня и количество файлов.
+ * Полный обход не выполняется, поэтому время анализа зависит от размера выборки, а не от числа файлов
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+@Slf4j
+public class FanoutAnalyzer {
+	private static final String THREAD_NAME = "isin-fanout-analyzer";
+	private static final int HASH_ALPHABET_SIZE = 64;
+
+	private final StorageProperties storageProperties;
+	private final StorageLayout storageLayout;
+	private final IoScheduler ioScheduler;
+	private final int hashLength;
+
+	/**
+	 * Констуктор.
+	 *
+	 * @param storageProperties параметры сохранения
+	 * @param storageLayout     схемы размещения файлов
+	 * @param hashLength        длина хэшей имён файлов
+	 * @param ioScheduler       планировщик ввода-вывода, чтение директорий выполняется в пакетном классе
+	 */
+	public FanoutAnalyzer(StorageProperties storageProperties,
+						  StorageLayout storageLayout,
+						  int hashLength,
+						  IoScheduler ioScheduler) {
+		this.storageProperties = storageProperties;
+		this.storageLayout = storageLayout;
+		this.hashLength = hashLength;
+		this.ioScheduler = ioScheduler;
+	}
+
+	/**
+	 * Метод для оценки заполненности директорий.
+	 *
+	 * @param samplesPerLevel           количество просматриваемых директорий на каждом уровне
+	 * @param targetEntriesPerDirectory желаемое наибольшее количество записей в одной директории
+	 * @param parallelism               количество потоков, читающих директории
+	 * @return оценки по уровням и рекомендуемая схема размещения
+	 * @throws IOException в случае ошибки чтения директорий
+	 */
+	public FanoutReportDTO analyze(int samplesPerLevel, int targetEntriesPerDirectory, int parallelism)
+			throws IOException {
+		List<Path> level = new ArrayList<>();
+		for (Path root : storageProperties.getRootDirectories()) {
+			if (Files.isDirectory(root)) {
+				level.add(root);
+			}
+		}
+
+		List<FanoutLevelDTO> levels = new ArrayList<>();
+		double estimatedDirectories = level.size();
+		double estimatedFiles = 0;
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+			Thread thread = new Thread(runnable, THREAD_NAME);
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			for (int depth = 0; !level.isEmpty(); depth++) {
+				List<Path> sample = sample(level, Math.max(1, samplesPerLevel));
+				List<Callable<DirectoryStats>> tasks = new ArrayList<>();
+				for (Path directory : sample) {
+					tasks.add(() -> count(directory));
+				}
+
+				long entries = 0;
+				long files = 0;
+				long maxEntries = 0;
+				List<Path> next = new ArrayList<>();
+				for (Future<DirectoryStats> future : executor.invokeAll(tasks)) {
+					DirectoryStats stats = future.get();
+					entries += stats.files + stats.directories.size();
+					files += stats.files;
+					maxEntries = Math.max(maxEntries, stats.files + stats.directories.size());
+					next.addAll(stats.directories);
+				}
+
+				levels.add(FanoutLevelDTO.builder().
+						depth(depth).
+						sampledDirectories(sample.size()).
+						estimatedDirectories(estimatedDirectories).
+						meanEntries((double) entries / sample.size()).
+						maxEntries(maxEntries).
+						meanFiles((double) files / sample.size()).
+						build());
+				estimatedFiles += estimatedDirectories * files / sample.size();
+				estimatedDirectories *= (double) next.size() / sample.size();
+				level = next;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Fan-out analysis was interrupted", e);
+		} catch (ExecutionException e) {
+			throw new IOException("Unable to analyze fan-out: " + e.getCause().getMessage(), e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+
+		long files = Math.round(estimatedFiles);
+		int nameLength = recommendNameLength(targetEntriesPerDirectory);
+		int nestingLevel = recommendNestingLevel(files, nameLength, targetEntriesPerDirectory);
+		log.info("Fan-out analyzed: about {} files in {} levels, recommended layout {}x{} (current {}x{})",
+				files, levels.size(), nestingLevel, nameLength,
+				storageLayout.getCurrent().getDirectoryNestingLevel(),
+				storageLayout.getCurrent().getDirectoryNameLength());
+		return FanoutReportDTO.builder().
+				levels(levels).
+				estimatedFiles(files).
+				recommendedNestingLevel(nestingLevel).
+				recommendedNameLength(nameLength).
+				build();
+	}
+
+	/**
+	 * Подбор длины имени директории: директория промежуточного уровня вмещает все варианты имён
+	 * и не должна превышать желаемое количество записей.
+	 */
+	private static int recommendNameLength(int targetEntriesPerDirectory) {
+		int nameLength = 1;
+		while (Math.pow(HASH_ALPHABET_SIZE, nameLength + 1) <= targetEntriesPerDirectory) {
+			nameLength++;
+		}
+		return nameLength;
+	}
+
+	/**
+	 * Подбор наименьшей вложенности, при которой в директории последнего уровня не больше желаемого количества файлов.
+	 */
+	private int recommendNestingLevel(long files, int nameLength, int targetEntriesPerDirectory) {
+		int minFileNameLength = storageLayout.getCurrent().getMinFileNameLength();
+		int maxNestingLevel = Math.max(1, (hashLength - minFileNameLength) / nameLength);
+		int nestingLevel = 1;
+		while (nestingLevel < maxNestingLevel &&
+				files / Math.pow(HASH_ALPHABET_SIZE, (double) nameLength * nestingLevel) > targetEntriesPerDirectory) {
+			nestingLevel++;
+		}
+		return nestingLevel;
+	}
+
+	/**
+	 * Случайная выборка директорий уровня.
+	 */
+	private static List<Path> sample(List<Path> level, int size) {
+		if (level.size() <= size) {
+			return level;
+		}
+		List<Path> shuffled = new ArrayList<>(level);
+		Collections.shuffle(shuffled, ThreadLocalRandom.current());
+		return shuffled.subList(0, size);
+	}
+
+	/**
+	 * Подсчёт записей одной директории.
+	 */
+	private DirectoryStats count(Path directory) throws IOException {
+		ioScheduler.acquire(IoClass.BATCH, 0);
+		DirectoryStats stats = new DirectoryStats();
+		try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+			for (Path entry : entries) {
+				if (Files.isDirectory(entry)) {
+					stats.directories.add(entry);
+				} else {
+					stats.files++;
+				}
+			}
+		} catch (NoSuchFileException e) {
+			log.debug("Directory {} was removed during analysis", directory);
+		}
+		return stats;
+	}
+
+	/**
+	 * Содержимое одной директории.
+	 */
+	private static class DirectoryStats {
+		private final List<Path> directories = new ArrayList<>();
+		private long files;
+	}
+}
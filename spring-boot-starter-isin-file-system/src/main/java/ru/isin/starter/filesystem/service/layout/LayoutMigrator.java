@@ -0,0 +1,339 @@
+package ru.isin.starter.filesystem.service.layout;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.isin.starter.filesystem.domain.RelayoutReportDTO;
+import ru.isin.starter.filesystem.properties.StorageProperties;
+import ru.isin.starter.filesystem.service.StorageService;
+import ru.isin.starter.filesystem.service.io.IoClass;
+import ru.isin.starter.filesystem.service.io.IoScheduler;
+import ru.isin.starter.filesystem.service.lock.FileLocks;
+import ru.isin.starter.filesystem.service.tier.TierManager;
+import ru.isin.starter.filesystem.service.volume.VolumeSelector;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Инструмент для переноса сохранённых файлов в новую схему размещения без остановки хранилища.
+ * <p>
+ * Сначала новая схема становится текущей: новые файлы сохраняются по ней, а сохранённые ищутся
+ * сначала по новой схеме, затем по предыдущей. Затем каждый файл получает жёсткую ссылку по новому пути
+ * и только после этого удаляется по старому, поэтому чтение находит файл в любой момент переноса.
+ * Если все файлы перенесены, поиск по предыдущей схеме прекращается
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+@Slf4j
+public class LayoutMigrator {
+	private static final String THREAD_NAME = "isin-layout-migrator";
+	private static final String COPY_SUFFIX = ".relayout";
+
+	private final StorageProperties storageProperties;
+	private final StorageLayout storageLayout;
+	private final StorageService storageService;
+	private final TierManager tierManager;
+	private final IoScheduler ioScheduler;
+	private final FileLocks fileLocks;
+	private final int hashLength;
+
+	/**
+	 * Констуктор.
+	 *
+	 * @param storageProperties параметры сохранения
+	 * @param storageLayout     схемы размещения файлов, используемые сервисом сохранения
+	 * @param hashLength        длина хэшей имён файлов
+	 * @param storageService    сервис для сохранения файлов, используется для удаления пустых директорий
+	 * @param tierManager       управление уровнями хранилища или null, если холодный уровень не используется
+	 * @param ioScheduler       планировщик ввода-вывода, перенос выполняется в классе обслуживания
+	 * @param fileLocks         блокировки файлов, общие с сервисом сохранения
+	 */
+	public LayoutMigrator(StorageProperties storageProperties,
+						  StorageLayout storageLayout,
+						  int hashLength,
+						  StorageService storageService,
+						  TierManager tierManager,
+						  IoScheduler ioScheduler,
+						  FileLocks fileLocks) {
+		this.storageProperties = storageProperties;
+		this.storageLayout = storageLayout;
+		this.hashLength = hashLength;
+		this.storageService = storageService;
+		this.tierManager = tierManager;
+		this.ioScheduler = ioScheduler;
+		this.fileLocks = fileLocks;
+	}
+
+	/**
+	 * Метод для переноса файлов в новую схему размещения.
+	 * Повторный вызов с той же схемой продолжает прерванный перенос.
+	 *
+	 * @param target      новая схема размещения
+	 * @param parallelism количество потоков, обрабатывающих директории
+	 * @return результаты переноса
+	 * @throws IOException           в случае ошибки чтения корневых директорий
+	 * @throws IllegalStateException если не завершён перенос в другую схему
+	 */
+	public RelayoutReportDTO migrate(DirectoryLayout target, int parallelism) throws IOException {
+		storageLayout.switchTo(target);
+		DirectoryLayout previous = storageLayout.getPrevious();
+		if (previous == null) {
+			return RelayoutReportDTO.builder().build();
+		}
+
+		RelayoutReportDTO report = tierManager == null ?
+				migrate(previous, target, parallelism) :
+				tierManager.suspendMigration(() -> migrate(previous, target, parallelism));
+		if (report.getFailed() == 0) {
+			storageLayout.finish();
+			log.info("Relayout to {} finished: {} files scanned, {} moved", target, report.getScanned(),
+					report.getMoved());
+		} else {
+			log.warn("Relayout to {} is not finished: {} files scanned, {} moved, {} failed", target,
+					report.getScanned(), report.getMoved(), report.getFailed());
+		}
+		return report;
+	}
+
+	/**
+	 * Параллельный перенос файлов всех корневых директорий.
+	 */
+	private RelayoutReportDTO migrate(DirectoryLayout previous, DirectoryLayout target, int parallelism)
+			throws IOException {
+		Progress progress = new Progress();
+		List<Path> roots = new ArrayList<>(storageProperties.getRootDirectories());
+		if (tierManager != null) {
+			roots.add(tierManager.getColdDirectory());
+		}
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for (Path root : roots) {
+			if (Files.notExists(root)) {
+				continue;
+			}
+			boolean cold = tierManager != null && root.equals(tierManager.getColdDirectory());
+			try (Stream<Path> entries = Files.list(root)) {
+				entries.forEach(entry -> tasks.add(() -> {
+					migrate(root, entry, cold, previous, target, progress);
+					return null;
+				}));
+			}
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+			Thread thread = new Thread(runnable, THREAD_NAME);
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			for (Future<Void> future : executor.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Relayout was interrupted", e);
+		} catch (ExecutionException e) {
+			throw new IOException("Unable to relayout storage: " + e.getCause().getMessage(), e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+
+		return RelayoutReportDTO.builder().
+				scanned(progress.scanned.get()).
+				moved(progress.moved.get()).
+				failed(progress.failed.get()).
+				build();
+	}
+
+	/**
+	 * Перенос файлов одной директории верхнего уровня.
+	 */
+	private void migrate(Path root, Path directory, boolean cold, DirectoryLayout previous, DirectoryLayout target,
+						 Progress progress) throws IOException {
+		List<Path> files;
+		try (Stream<Path> walk = Files.walk(directory)) {
+			files = walk.filter(Files::isRegularFile).collect(Collectors.toList());
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+
+		for (Path file : files) {
+			if (DirectoryLayout.isTemporary(file)) {
+				continue;
+			}
+			progress.scanned.incrementAndGet();
+			Path relativePath = root.relativize(file);
+			boolean inTarget = !target.recoverHashes(relativePath, hashLength).isEmpty();
+			Set<Path> targets = new TreeSet<>();
+			for (String hash : previous.recoverHashes(relativePath, hashLength)) {
+				targets.add(target.getRelativePath(hash));
+			}
+			if (inTarget && !targets.contains(relativePath)) {
+				// Файл уже размещён по новой схеме: перенесён из другой директории или сохранён во время переноса
+				continue;
+			}
+			if (targets.isEmpty()) {
+				log.error("Unable to recover file name hash of {} in layout {}", file, previous);
+				progress.failed.incrementAndGet();
+				continue;
+			}
+			if (targets.equals(Set.of(relativePath))) {
+				continue;
+			}
+			try {
+				if (move(root, relativePath, List.copyOf(targets), cold)) {
+					progress.moved.incrementAndGet();
+				}
+			} catch (IOException e) {
+				log.error("Unable to move {} to layout {}: {}", file, target, e.getMessage());
+				progress.failed.incrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Перенос одного файла: создание новых путей, регистрация на холодном уровне и удаление старого пути.
+	 * Если старому пути соответствует несколько хэшей, файл доступен по новым путям каждого из них,
+	 * а на холодном уровне, где расположение хранится по ключу распределения, общему для этих хэшей, по первому.
+	 * Старый путь сохраняется, если он совпадает с одним из новых.
+	 * Если файл удалён во время переноса, новые пути также удаляются.
+	 * Перенос выполняется под блокировкой файла, поэтому не пересекается с его изменением.
+	 * Объём скопированных данных учитывается планировщиком ввода-вывода после освобождения блокировки.
+	 */
+	private boolean move(Path root, Path relativePath, List<Path> targetRelativePaths, boolean cold)
+			throws IOException {
+		Path source = root.resolve(relativePath);
+		boolean keepSource = targetRelativePaths.contains(relativePath);
+		if (cold) {
+			if (keepSource) {
+				return false;
+			}
+			targetRelativePaths = targetRelativePaths.subList(0, 1);
+		}
+		List<Path> targets = new ArrayList<>();
+		for (Path targetRelativePath : targetRelativePaths) {
+			if (!targetRelativePath.equals(relativePath)) {
+				targets.add(root.resolve(targetRelativePath));
+			}
+		}
+		ioScheduler.acquire(IoClass.MAINTENANCE, 0);
+		String routingKey = VolumeSelector.routingKey(relativePath.toString());
+		Path coldTarget = targetRelativePaths.get(0);
+		AtomicLong copied = new AtomicLong();
+		boolean moved;
+		try {
+			moved = fileLocks.write(routingKey, () -> {
+				for (Path target : targets) {
+					if (!link(source, target, copied)) {
+						return false;
+					}
+				}
+				if (keepSource) {
+					return true;
+				}
+
+				if (cold && !tierManager.relocate(routingKey, relativePath, coldTarget)) {
+					Files.deleteIfExists(targets.get(0));
+					return false;
+				}
+				try {
+					Files.delete(source);
+				} catch (NoSuchFileException e) {
+					for (Path target : targets) {
+						Files.deleteIfExists(target);
+					}
+					if (cold) {
+						tierManager.forget(routingKey);
+					}
+					return false;
+				}
+				return true;
+			});
+		} finally {
+			ioScheduler.charge(IoClass.MAINTENANCE, copied.get());
+		}
+		if (moved && !keepSource) {
+			storageService.clearSubtree(source.getParent());
+		}
+		return moved;
+	}
+
+	/**
+	 * Создание жёсткой ссылки, а если файловая система их не поддерживает, копии файла.
+	 * Директории нового пути могут быть удалены параллельной очисткой пустых директорий, тогда создание повторяется.
+	 * Копия создаётся во временном файле и переименовывается в новый путь, поэтому по новому пути файл
+	 * появляется целиком.
+	 *
+	 * @return false, если исходный файл удалён
+	 */
+	private boolean link(Path source, Path target, AtomicLong copied) throws IOException {
+		while (true) {
+			try {
+				Files.createDirectories(target.getParent());
+				Files.createLink(target, source);
+				return true;
+			} catch (FileAlreadyExistsException e) {
+				log.debug("File {} was saved in the new layout during relayout", target);
+				return true;
+			} catch (NoSuchFileException e) {
+				if (Files.notExists(source)) {
+					return false;
+				}
+			} catch (UnsupportedOperationException | FileSystemException e) {
+				copy(source, target, copied);
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Копирование файла во временный файл рядом с новым путём, сброс копии на диск и её переименование.
+	 */
+	private void copy(Path source, Path target, AtomicLong copied) throws IOException {
+		if (Files.exists(target)) {
+			log.debug("File {} was saved in the new layout during relayout", target);
+			return;
+		}
+		copied.addAndGet(Files.size(source));
+		Path temporary = target.resolveSibling(target.getFileName() + COPY_SUFFIX);
+		try {
+			DirectoryLayout.createInDirectory(target.getParent(), () -> Files.copy(source, temporary,
+					StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES));
+			try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+				channel.force(true);
+			}
+			Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			Files.deleteIfExists(temporary);
+			throw e;
+		}
+	}
+
+	/**
+	 * Счётчики переноса.
+	 */
+	private static class Progress {
+		private final AtomicLong scanned = new AtomicLong();
+		private final AtomicLong moved = new AtomicLong();
+		private final AtomicLong failed = new AtomicLong();
+	}
+}
@@ -0,0 +1,92 @@
+package ru.isin.starter.filesystem.service.layout;
+
+import ru.isin.starter.filesystem.properties.StorageProperties;
+
+import java.util.List;
+
+/**
+ * Текущая схема размещения файлов хранилища и схема, из которой файлы ещё переносятся.
+ * Новые файлы сохраняются по текущей схеме, сохранённые ищутся сначала по текущей, затем по предыдущей
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+public class StorageLayout {
+	/**
+	 * Текущая схема и, если перенос не завершён, предыдущая. Меняются вместе одной записью.
+	 */
+	private volatile List<DirectoryLayout> layouts;
+
+	/**
+	 * Констуктор.
+	 *
+	 * @param current  текущая схема размещения
+	 * @param previous схема, из которой переносятся файлы, или null
+	 */
+	public StorageLayout(DirectoryLayout current, DirectoryLayout previous) {
+		this.layouts = previous == null || current.equals(previous) ? List.of(current) : List.of(current, previous);
+	}
+
+	/**
+	 * Метод для получения схем размещения, заданных параметрами сохранения.
+	 *
+	 * @param storageProperties параметры сохранения
+	 * @return схемы размещения
+	 */
+	public static StorageLayout of(StorageProperties storageProperties) {
+		return new StorageLayout(DirectoryLayout.of(storageProperties), DirectoryLayout.previousOf(storageProperties));
+	}
+
+	/**
+	 * Метод для получения текущей схемы размещения.
+	 *
+	 * @return схема размещения
+	 */
+	public DirectoryLayout getCurrent() {
+		return layouts.get(0);
+	}
+
+	/**
+	 * Метод для получения схемы, из которой переносятся файлы.
+	 *
+	 * @return схема размещения или null, если перенос не выполняется
+	 */
+	public DirectoryLayout getPrevious() {
+		List<DirectoryLayout> snapshot = layouts;
+		return snapshot.size() > 1 ? snapshot.get(1) : null;
+	}
+
+	/**
+	 * Метод для получения схем в порядке поиска файлов.
+	 *
+	 * @return текущая схема и, если перенос не завершён, предыдущая
+	 */
+	public List<DirectoryLayout> getSearchOrder() {
+		return layouts;
+	}
+
+	/**
+	 * Метод для перехода на новую схему размещения.
+	 * Текущая схема становится предыдущей до завершения переноса файлов.
+	 *
+	 * @param target новая схема размещения
+	 * @throws IllegalStateException если не завершён перенос в другую схему
+	 */
+	public synchronized void switchTo(DirectoryLayout target) {
+		DirectoryLayout current = getCurrent();
+		if (target.equals(current)) {
+			return;
+		}
+		if (layouts.size() > 1) {
+			throw new IllegalStateException("Relayout from " + getPrevious() + " to " + current + " is not finished");
+		}
+		layouts = List.of(target, current);
+	}
+
+	/**
+	 * Метод для завершения переноса: файлы больше не ищутся по предыдущей схеме.
+	 */
+	public synchronized void finish() {
+		layouts = List.of(getCurrent());
+	}
+}
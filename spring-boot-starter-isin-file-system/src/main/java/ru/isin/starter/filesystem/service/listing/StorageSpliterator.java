@@ -0,0 +1,454 @@
+package ru.isin.starter.filesystem.service.listing;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.isin.starter.filesystem.domain.FileDTO;
+import ru.isin.starter.filesystem.domain.FileFilterDTO;
+import ru.isin.starter.filesystem.service.content.ContentTypeDetector;
+import ru.isin.starter.filesystem.service.layout.DirectoryLayout;
+import ru.isin.starter.filesystem.service.pack.SegmentStore;
+import ru.isin.starter.filesystem.service.volume.VolumeSelector;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Ленивый обход сохранённых файлов.
+ * <p>
+ * Обход разбит на независимые части: по одной на каждую директорию верхнего уровня иерархии хэшей
+ * (директории с одинаковым именем на разных томах обходятся вместе) и по одной на каждый первый символ
+ * ключей упакованных файлов. Разделение выполняется по этим частям, поэтому параллельный поток
+ * обходит разные директории в разных потоках. Внутри части директории читаются по одной по мере обхода.
+ * <p>
+ * Файлы перечисляются в постоянном порядке: сначала файлы иерархии в лексикографическом порядке
+ * относительных путей, затем упакованные файлы в порядке ключей. Курсор каждого файла позволяет
+ * продолжить обход после него, не просматривая уже пройденные директории.
+ * Временные файлы записи и переноса не перечисляются, а пока не завершён перенос в новую схему размещения,
+ * файл, уже перенесённый в новую схему, перечисляется только по новому пути.
+ * Исходный тип содержимого при сохранении не хранится, а имена файлов иерархии не содержат расширения,
+ * поэтому перечисляемым файлам назначается тип содержимого по умолчанию
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+public class StorageSpliterator implements Spliterator<StorageSpliterator.Entry> {
+	private static final String TREE_CURSOR_PREFIX = "f:";
+	private static final String PACK_CURSOR_PREFIX = "p:";
+
+	private final Source source;
+	private final List<Chunk> chunks;
+	private Iterator<Entry> current;
+	private int from;
+	private final int to;
+
+	/**
+	 * Перечисляемый файл вместе с курсором, указывающим на него.
+	 */
+	@Getter
+	@AllArgsConstructor
+	public static class Entry {
+		private final String cursor;
+		private final FileDTO file;
+	}
+
+	/**
+	 * Общие для всех частей обхода параметры.
+	 */
+	@AllArgsConstructor
+	private static class Source {
+		private final List<Path> rootDirectories;
+		private final SegmentStore segmentStore;
+		private final Function<String, Path> packedRelativePath;
+		private final Predicate<Path> relayoutSource;
+		private final FileFilterDTO filter;
+	}
+
+	/**
+	 * Независимая часть обхода.
+	 */
+	private interface Chunk {
+		Iterator<Entry> iterator(Source source);
+	}
+
+	/**
+	 * Констуктор.
+	 *
+	 * @param rootDirectories    корневые директории томов и уровней хранилища
+	 * @param segmentStore       хранилище упакованных файлов или null, если упаковка отключена
+	 * @param packedRelativePath функция для вычисления пути упакованного файла относительно тома по его ключу
+	 * @param relayoutSource     функция для проверки того, что файл иерархии с данным путём относительно тома
+	 *                           является прежней копией файла, уже перенесённого в новую схему размещения
+	 * @param filter             условия отбора файлов
+	 * @param cursor             курсор, после которого нужно продолжить обход, или null для обхода с начала
+	 * @throws IOException в случае ошибки чтения корневых директорий
+	 */
+	public StorageSpliterator(List<Path> rootDirectories,
+							  SegmentStore segmentStore,
+							  Function<String, Path> packedRelativePath,
+							  Predicate<Path> relayoutSource,
+							  FileFilterDTO filter,
+							  String cursor) throws IOException {
+		this.source = new Source(rootDirectories, segmentStore, packedRelativePath, relayoutSource, filter);
+		this.chunks = createChunks(cursor);
+		this.from = 0;
+		this.to = chunks.size();
+	}
+
+	private StorageSpliterator(Source source, List<Chunk> chunks, Iterator<Entry> current, int from, int to) {
+		this.source = source;
+		this.chunks = chunks;
+		this.current = current;
+		this.from = from;
+		this.to = to;
+	}
+
+	/**
+	 * {@inheritDoc}.
+	 */
+	@Override
+	public boolean tryAdvance(Consumer<? super Entry> action) {
+		while (true) {
+			if (current != null && current.hasNext()) {
+				action.accept(current.next());
+				return true;
+			}
+			if (from >= to) {
+				return false;
+			}
+			current = chunks.get(from++).iterator(source);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}.
+	 * Отделяет первую половину ещё не начатых частей вместе с обходимой в данный момент частью.
+	 */
+	@Override
+	public Spliterator<Entry> trySplit() {
+		int remaining = to - from;
+		if (remaining < 2) {
+			return null;
+		}
+		int middle = from + remaining / 2;
+		StorageSpliterator prefix = new StorageSpliterator(source, chunks, current, from, middle);
+		current = null;
+		from = middle;
+		return prefix;
+	}
+
+	/**
+	 * {@inheritDoc}.
+	 */
+	@Override
+	public long estimateSize() {
+		return Long.MAX_VALUE;
+	}
+
+	/**
+	 * {@inheritDoc}.
+	 */
+	@Override
+	public int characteristics() {
+		return ORDERED | DISTINCT | NONNULL;
+	}
+
+	/**
+	 * Разбиение обхода на части с учётом курсора.
+	 * Части, целиком предшествующие курсору, не создаются.
+	 */
+	private List<Chunk> createChunks(String cursor) throws IOException {
+		List<Chunk> result = new ArrayList<>();
+		List<String> treeCursor = null;
+		String packCursor = null;
+		if (cursor != null && cursor.startsWith(TREE_CURSOR_PREFIX)) {
+			treeCursor = splitPath(cursor.substring(TREE_CURSOR_PREFIX.length()));
+		} else if (cursor != null && cursor.startsWith(PACK_CURSOR_PREFIX)) {
+			packCursor = cursor.substring(PACK_CURSOR_PREFIX.length());
+		} else if (cursor != null) {
+			throw new IllegalArgumentException("Unknown cursor: " + cursor);
+		}
+
+		if (packCursor == null) {
+			for (String name : listNames(source.rootDirectories)) {
+				int comparison = treeCursor == null ? 1 : name.compareTo(treeCursor.get(0));
+				if (comparison < 0 || !isPrefixCompatible(name, source.filter)) {
+					continue;
+				}
+				List<String> chunkCursor = comparison == 0 ? treeCursor : null;
+				result.add(sourceData -> new TreeIterator(sourceData, name, chunkCursor));
+			}
+		}
+
+		if (source.segmentStore != null) {
+			NavigableSet<String> keys = source.segmentStore.keys();
+			String key = packCursor == null ? keys.ceiling("") : keys.higher(packCursor);
+			while (key != null) {
+				String first = key;
+				String last = String.valueOf(key.charAt(0)) + Character.MAX_VALUE;
+				result.add(sourceData -> new PackIterator(sourceData, first, last));
+				key = keys.higher(last);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Обход части иерархии с общей директорией верхнего уровня на всех томах.
+	 */
+	private static class TreeIterator implements Iterator<Entry> {
+		private final Source source;
+		private final Deque<Frame> stack = new ArrayDeque<>();
+		private Entry next;
+
+		/**
+		 * Просматриваемая директория: одноимённые директории всех томов.
+		 */
+		private static class Frame {
+			private final List<Path> directories;
+			private final Path relativePath;
+			private final String key;
+			private final List<String> names;
+			private List<String> cursor;
+			private int index;
+
+			private Frame(List<Path> directories, Path relativePath, String key, List<String> names,
+						  List<String> cursor) {
+				this.directories = directories;
+				this.relativePath = relativePath;
+				this.key = key;
+				this.names = names;
+				this.cursor = cursor;
+			}
+		}
+
+		private TreeIterator(Source source, String name, List<String> cursor) {
+			this.source = source;
+			stack.push(new Frame(source.rootDirectories, null, "", List.of(name), cursor));
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (next == null) {
+				next = advance();
+			}
+			return next != null;
+		}
+
+		@Override
+		public Entry next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Entry entry = next;
+			next = null;
+			return entry;
+		}
+
+		/**
+		 * Поиск следующего подходящего файла обходом в глубину.
+		 */
+		private Entry advance() {
+			while (!stack.isEmpty()) {
+				Frame frame = stack.peek();
+				if (frame.index >= frame.names.size()) {
+					stack.pop();
+					continue;
+				}
+				String name = frame.names.get(frame.index++);
+
+				List<String> cursor = null;
+				if (frame.cursor != null) {
+					int comparison = name.compareTo(frame.cursor.get(0));
+					if (comparison < 0) {
+						continue;
+					} else if (comparison == 0) {
+						cursor = frame.cursor.subList(1, frame.cursor.size());
+					} else {
+						frame.cursor = null;
+					}
+				}
+
+				String key = frame.key + name;
+				if (!isPrefixCompatible(key, source.filter)) {
+					continue;
+				}
+				Path relativePath = frame.relativePath == null ? Paths.get(name) : frame.relativePath.resolve(name);
+
+				List<Path> directories = new ArrayList<>();
+				Path file = null;
+				BasicFileAttributes fileAttributes = null;
+				for (Path directory : frame.directories) {
+					Path child = directory.resolve(name);
+					BasicFileAttributes attributes = readAttributes(child);
+					if (attributes == null) {
+						continue;
+					}
+					if (attributes.isDirectory()) {
+						directories.add(child);
+					} else if (attributes.isRegularFile() && file == null && !DirectoryLayout.isTemporary(child)) {
+						file = child;
+						fileAttributes = attributes;
+					}
+				}
+
+				if (!directories.isEmpty()) {
+					stack.push(new Frame(directories, relativePath, key, listNames(directories),
+							cursor == null || cursor.isEmpty() ? null : cursor));
+				}
+				if (file != null && cursor == null && key.startsWith(nullToEmpty(source.filter.getPrefix())) &&
+						matches(source.filter, fileAttributes.size(), fileAttributes.lastModifiedTime().toInstant()) &&
+						!source.relayoutSource.test(relativePath)) {
+					return new Entry(TREE_CURSOR_PREFIX + relativePath, FileDTO.builder().
+							name(relativePath.toString()).
+							path(file).
+							contentType(ContentTypeDetector.DEFAULT_CONTENT_TYPE).
+							size(fileAttributes.size()).
+							build());
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Обход упакованных файлов с ключами из заданного диапазона.
+	 */
+	private static class PackIterator implements Iterator<Entry> {
+		private final Source source;
+		private final Iterator<String> keys;
+		private Entry next;
+
+		private PackIterator(Source source, String first, String last) {
+			this.source = source;
+			this.keys = source.segmentStore.keys().subSet(first, true, last, false).iterator();
+		}
+
+		@Override
+		public boolean hasNext() {
+			while (next == null && keys.hasNext()) {
+				next = toEntry(keys.next());
+			}
+			return next != null;
+		}
+
+		@Override
+		public Entry next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Entry entry = next;
+			next = null;
+			return entry;
+		}
+
+		/**
+		 * Преобразование ключа упакованного файла в элемент обхода, если файл удовлетворяет условиям отбора.
+		 * Временем изменения упакованного файла считается время изменения его сегмента,
+		 * путь упакованного файла в файловой системе не заполняется
+		 */
+		private Entry toEntry(String key) {
+			if (!VolumeSelector.routingKey(key).startsWith(nullToEmpty(source.filter.getPrefix()))) {
+				return null;
+			}
+			long size = source.segmentStore.getSize(key);
+			Path segmentPath = source.segmentStore.getSegmentPath(key);
+			BasicFileAttributes attributes = segmentPath == null ? null : readAttributes(segmentPath);
+			if (size < 0 || attributes == null ||
+					!matches(source.filter, size, attributes.lastModifiedTime().toInstant())) {
+				return null;
+			}
+			Path relativePath = source.packedRelativePath.apply(key);
+			return new Entry(PACK_CURSOR_PREFIX + key, FileDTO.builder().
+					name(relativePath.toString()).
+					contentType(ContentTypeDetector.DEFAULT_CONTENT_TYPE).
+					size(size).
+					build());
+		}
+	}
+
+	/**
+	 * Проверка того, что файлы с ключом, начинающимся с указанной строки, могут удовлетворять префиксу.
+	 */
+	private static boolean isPrefixCompatible(String key, FileFilterDTO filter) {
+		String prefix = nullToEmpty(filter.getPrefix());
+		return key.startsWith(prefix) || prefix.startsWith(key);
+	}
+
+	/**
+	 * Проверка размера и времени изменения файла.
+	 */
+	private static boolean matches(FileFilterDTO filter, long size, Instant lastModified) {
+		return (filter.getMinSize() == null || size >= filter.getMinSize()) &&
+				(filter.getMaxSize() == null || size <= filter.getMaxSize()) &&
+				(filter.getModifiedAfter() == null || !lastModified.isBefore(filter.getModifiedAfter())) &&
+				(filter.getModifiedBefore() == null || lastModified.isBefore(filter.getModifiedBefore()));
+	}
+
+	/**
+	 * Чтение атрибутов файла или null, если файл не существует.
+	 */
+	private static BasicFileAttributes readAttributes(Path path) {
+		try {
+			return Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+		} catch (NoSuchFileException e) {
+			return null;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Получение отсортированного объединения имён, содержащихся в указанных директориях.
+	 */
+	private static List<String> listNames(List<Path> directories) {
+		TreeSet<String> names = new TreeSet<>();
+		for (Path directory : directories) {
+			try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+				for (Path entry : entries) {
+					names.add(entry.getFileName().toString());
+				}
+			} catch (NoSuchFileException e) {
+				continue;
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		return new ArrayList<>(names);
+	}
+
+	/**
+	 * Разбиение относительного пути на имена.
+	 */
+	private static List<String> splitPath(String path) {
+		List<String> names = new ArrayList<>();
+		for (Path name : Paths.get(path)) {
+			names.add(name.toString());
+		}
+		return names.isEmpty() ? Collections.singletonList("") : names;
+	}
+
+	private static String nullToEmpty(String value) {
+		return value == null ? "" : value;
+	}
+}
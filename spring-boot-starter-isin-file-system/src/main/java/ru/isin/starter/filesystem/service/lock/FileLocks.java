@@ -0,0 +1,103 @@
+package ru.isin.starter.filesystem.service.lock;
+
+import ru.isin.starter.filesystem.service.io.IoScheduler;
+import ru.isin.starter.filesystem.service.volume.VolumeSelector;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Блокировки сохранённых файлов по ключу распределения.
+ * <p>
+ * Операции, которые изменяют, заменяют, удаляют или перемещают файл между уровнями, томами и схемами размещения,
+ * выполняются под блокировкой записи, чтение содержимого — под блокировкой чтения.
+ * Ключ распределения ({@link VolumeSelector#routingKey(String)}) одинаков для хэша имени файла и для его пути
+ * в любой схеме размещения, поэтому сервис сохранения и фоновые операции блокируют один и тот же файл одинаково.
+ * Блокировки разбиты на фиксированное число полос, файлы одной полосы блокируются вместе.
+ * Ожидание ввода-вывода с ограничением скорости выполняется до получения блокировки
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+public class FileLocks {
+	private static final int DEFAULT_STRIPE_COUNT = 256;
+
+	private final ReadWriteLock[] stripes;
+
+	/**
+	 * Констуктор с количеством полос по умолчанию.
+	 */
+	public FileLocks() {
+		this(DEFAULT_STRIPE_COUNT);
+	}
+
+	/**
+	 * Констуктор.
+	 *
+	 * @param stripeCount количество полос блокировок
+	 */
+	public FileLocks(int stripeCount) {
+		if (stripeCount <= 0) {
+			throw new IllegalArgumentException("Stripe count must be positive: " + stripeCount);
+		}
+		stripes = new ReadWriteLock[stripeCount];
+		for (int i = 0; i < stripeCount; i++) {
+			stripes[i] = new ReentrantReadWriteLock();
+		}
+	}
+
+	/**
+	 * Метод для выполнения операции чтения файла.
+	 * Операции чтения одного файла выполняются одновременно, но не во время его изменения.
+	 *
+	 * @param routingKey ключ распределения файла
+	 * @param operation  операция
+	 * @param <T>        тип результата операции
+	 * @return результат операции
+	 * @throws IOException в случае ошибки операции или прерывания ожидания блокировки
+	 */
+	public <T> T read(String routingKey, IoScheduler.IoOperation<T> operation) throws IOException {
+		return execute(getStripe(routingKey).readLock(), operation);
+	}
+
+	/**
+	 * Метод для выполнения операции изменения файла.
+	 * Операция выполняется, когда с файлом не выполняются другие операции.
+	 *
+	 * @param routingKey ключ распределения файла
+	 * @param operation  операция
+	 * @param <T>        тип результата операции
+	 * @return результат операции
+	 * @throws IOException в случае ошибки операции или прерывания ожидания блокировки
+	 */
+	public <T> T write(String routingKey, IoScheduler.IoOperation<T> operation) throws IOException {
+		return execute(getStripe(routingKey).writeLock(), operation);
+	}
+
+	/**
+	 * Выполнение операции под блокировкой.
+	 */
+	private static <T> T execute(Lock lock, IoScheduler.IoOperation<T> operation) throws IOException {
+		try {
+			lock.lockInterruptibly();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for file lock");
+		}
+		try {
+			return operation.execute();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Выбор полосы блокировок по ключу распределения.
+	 */
+	private ReadWriteLock getStripe(String routingKey) {
+		return stripes[Math.floorMod(routingKey.hashCode(), stripes.length)];
+	}
+}
@@ -0,0 +1,645 @@
+package ru.isin.starter.filesystem.service.pack;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import ru.isin.starter.filesystem.properties.PackProperties;
+import ru.isin.starter.filesystem.service.integrity.ChecksumMismatchException;
+import ru.isin.starter.filesystem.service.io.IoClass;
+import ru.isin.starter.filesystem.service.io.IoScheduler;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Хранилище небольших файлов, упакованных в сегменты с дозаписью.
+ * <p>
+ * Каждая запись сегмента состоит из заголовка фиксированной длины, ключа и содержимого.
+ * Удаление выполняется дозаписью маркера удаления, индекс "ключ - смещение" хранится в памяти
+ * и восстанавливается при открытии хранилища последовательным чтением сегментов.
+ * Сегменты, доля удалённых данных в которых превысила порог, переписываются фоновым уплотнителем
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+@Slf4j
+public class SegmentStore implements Closeable {
+	private static final int MAGIC = 0x49534E50;
+	private static final byte TYPE_PUT = 1;
+	private static final byte TYPE_DELETE = 2;
+	private static final int HEADER_LENGTH = 17;
+	private static final int MAX_READ_ATTEMPTS = 3;
+	private static final String SEGMENT_PREFIX = "segment-";
+	private static final String SEGMENT_SUFFIX = ".dat";
+	private static final String COMPACTOR_THREAD_NAME = "isin-segment-compactor";
+
+	private final PackProperties packProperties;
+	private final IoScheduler ioScheduler;
+	private final ConcurrentSkipListMap<String, Location> index = new ConcurrentSkipListMap<>();
+	private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+	private final Object writeLock = new Object();
+	private final ScheduledExecutorService compactor;
+	private volatile Segment activeSegment;
+
+	/**
+	 * Положение содержимого файла внутри сегмента.
+	 */
+	@Getter
+	@AllArgsConstructor
+	private static class Location {
+		private final long segmentId;
+		private final long offset;
+		private final int length;
+		private final int crc;
+		private final long recordLength;
+	}
+
+	/**
+	 * Заголовок записи сегмента вместе с ключом.
+	 */
+	@Getter
+	@AllArgsConstructor
+	private static class Record {
+		private final byte type;
+		private final String key;
+		private final long valueOffset;
+		private final int valueLength;
+		private final int crc;
+		private final long recordLength;
+	}
+
+	/**
+	 * Файл сегмента.
+	 * Канал переоткрывается, если был закрыт прерыванием читающего потока,
+	 * и окончательно закрывается только после удаления сегмента уплотнителем
+	 */
+	private static class Segment {
+		@Getter
+		private final long id;
+		@Getter
+		private final Path path;
+		private final AtomicLong size = new AtomicLong();
+		private final AtomicLong liveBytes = new AtomicLong();
+		private volatile FileChannel channel;
+		private volatile boolean retired;
+
+		private Segment(long id, Path path) throws IOException {
+			this.id = id;
+			this.path = path;
+			this.channel = open(path);
+		}
+
+		private static FileChannel open(Path path) throws IOException {
+			return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		}
+
+		private FileChannel channel() throws IOException {
+			FileChannel current = channel;
+			if (current.isOpen()) {
+				return current;
+			}
+			synchronized (this) {
+				if (retired) {
+					throw new ClosedChannelException();
+				}
+				if (!channel.isOpen()) {
+					channel = open(path);
+				}
+				return channel;
+			}
+		}
+
+		private double garbageRatio() {
+			long total = size.get();
+			return total == 0 ? 1.0 : 1.0 - (double) liveBytes.get() / total;
+		}
+
+		private synchronized void retire() throws IOException {
+			retired = true;
+			channel.close();
+		}
+	}
+
+	/**
+	 * Констуктор хранилища, уплотнение которого не ограничивается планировщиком ввода-вывода.
+	 *
+	 * @param packProperties параметры упаковки
+	 * @throws IOException в случае ошибки открытия директории или сегментов
+	 */
+	public SegmentStore(PackProperties packProperties) throws IOException {
+		this(packProperties, new IoScheduler());
+	}
+
+	/**
+	 * Констуктор.
+	 * Открывает существующие сегменты, восстанавливает индекс и запускает фоновое уплотнение.
+	 *
+	 * @param packProperties параметры упаковки
+	 * @param ioScheduler    планировщик ввода-вывода, уплотнение выполняется в классе обслуживания
+	 * @throws IOException в случае ошибки открытия директории или сегментов
+	 */
+	public SegmentStore(PackProperties packProperties, IoScheduler ioScheduler) throws IOException {
+		this.packProperties = packProperties;
+		this.ioScheduler = ioScheduler;
+		Files.createDirectories(packProperties.getDirectory());
+		open();
+
+		compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, COMPACTOR_THREAD_NAME);
+			thread.setDaemon(true);
+			return thread;
+		});
+		long interval = packProperties.getCompactionInterval().toMillis();
+		if (interval > 0) {
+			compactor.scheduleWithFixedDelay(this::compact, interval, interval, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Метод для получения наибольшего размера упаковываемого содержимого.
+	 *
+	 * @return размер в байтах
+	 */
+	public long getMaxObjectSize() {
+		return packProperties.getMaxObjectSize();
+	}
+
+	/**
+	 * Метод для проверки того, может ли содержимое указанного размера быть упаковано.
+	 *
+	 * @param size размер содержимого
+	 * @return true, если содержимое будет упаковано в сегмент
+	 */
+	public boolean accepts(long size) {
+		return size <= packProperties.getMaxObjectSize();
+	}
+
+	/**
+	 * Метод для проверки наличия упакованного файла.
+	 *
+	 * @param key ключ файла
+	 * @return true, если файл упакован в один из сегментов
+	 */
+	public boolean contains(String key) {
+		return index.containsKey(key);
+	}
+
+	/**
+	 * Метод для сохранения содержимого в активный сегмент.
+	 * Предыдущее содержимое с тем же ключом становится мусором.
+	 * Сегмент сбрасывается на диск до возврата, поэтому сохранённый файл переживает сбой питания.
+	 *
+	 * @param key     ключ файла
+	 * @param content содержимое файла
+	 * @throws IOException в случае ошибки записи в сегмент
+	 */
+	public void put(String key, byte[] content) throws IOException {
+		synchronized (writeLock) {
+			appendPut(key, content, checksum(content));
+			activeSegment.channel().force(true);
+		}
+	}
+
+	/**
+	 * Метод для чтения упакованного содержимого.
+	 *
+	 * @param key ключ файла
+	 * @return содержимое файла или null, если файл не упакован
+	 * @throws IOException в случае ошибки чтения сегмента
+	 */
+	public byte[] read(String key) throws IOException {
+		return read(key, false);
+	}
+
+	/**
+	 * Метод для чтения упакованного содержимого со сверкой контрольной суммы записи.
+	 *
+	 * @param key    ключ файла
+	 * @param verify признак сверки контрольной суммы
+	 * @return содержимое файла или null, если файл не упакован
+	 * @throws ChecksumMismatchException если содержимое не совпадает с контрольной суммой записи
+	 * @throws IOException               в случае ошибки чтения сегмента
+	 */
+	public byte[] read(String key, boolean verify) throws IOException {
+		for (int attempt = 0; attempt < MAX_READ_ATTEMPTS; attempt++) {
+			Location location = index.get(key);
+			if (location == null) {
+				return null;
+			}
+			Segment segment = segments.get(location.getSegmentId());
+			if (segment == null) {
+				continue;
+			}
+			try {
+				ByteBuffer buffer = ByteBuffer.allocate(location.getLength());
+				readFully(segment.channel(), buffer, location.getOffset());
+				int actual = verify ? checksum(buffer.array()) : location.getCrc();
+				if (actual != location.getCrc()) {
+					throw new ChecksumMismatchException(segment.getPath(), location.getCrc(), actual);
+				}
+				return buffer.array();
+			} catch (ClosedByInterruptException e) {
+				throw e;
+			} catch (ClosedChannelException e) {
+				log.debug("Segment {} was compacted while reading {}, retrying", segment.getId(), key);
+			}
+		}
+		throw new IOException("Unable to read packed file " + key);
+	}
+
+	/**
+	 * Метод для удаления упакованного файла.
+	 * В активный сегмент дописывается маркер удаления, который сбрасывается на диск до возврата.
+	 *
+	 * @param key ключ файла
+	 * @return true, если файл был упакован и удалён
+	 * @throws IOException в случае ошибки записи в сегмент
+	 */
+	public boolean delete(String key) throws IOException {
+		synchronized (writeLock) {
+			Location previous = index.get(key);
+			if (previous == null) {
+				return false;
+			}
+			append(TYPE_DELETE, key, new byte[0], 0);
+			index.remove(key);
+			release(previous);
+			activeSegment.channel().force(true);
+			return true;
+		}
+	}
+
+	/**
+	 * Метод для получения размера упакованного файла.
+	 *
+	 * @param key ключ файла
+	 * @return размер файла или -1, если файл не упакован
+	 */
+	public long getSize(String key) {
+		Location location = index.get(key);
+		return location == null ? -1 : location.getLength();
+	}
+
+	/**
+	 * Метод для получения упорядоченного множества ключей упакованных файлов.
+	 * Множество отражает последующие изменения хранилища и допускает обход во время записи
+	 *
+	 * @return ключи файлов
+	 */
+	public NavigableSet<String> keys() {
+		return Collections.unmodifiableNavigableSet(index.navigableKeySet());
+	}
+
+	/**
+	 * Метод для получения пути к сегменту, в который упакован файл.
+	 *
+	 * @param key ключ файла
+	 * @return путь к сегменту или null, если файл не упакован
+	 */
+	public Path getSegmentPath(String key) {
+		Location location = index.get(key);
+		Segment segment = location == null ? null : segments.get(location.getSegmentId());
+		return segment == null ? null : segment.getPath();
+	}
+
+	/**
+	 * Метод для получения количества упакованных файлов.
+	 *
+	 * @return количество файлов
+	 */
+	public int size() {
+		return index.size();
+	}
+
+	/**
+	 * Метод для получения количества сегментов.
+	 *
+	 * @return количество сегментов
+	 */
+	public int getSegmentCount() {
+		return segments.size();
+	}
+
+	/**
+	 * Метод для уплотнения сегментов, доля удалённых данных в которых превысила порог.
+	 * Живые записи переносятся в активный сегмент, после чего исходный сегмент удаляется.
+	 */
+	public synchronized void compact() {
+		for (Segment segment : segments.values()) {
+			if (segment == activeSegment ||
+					segment.garbageRatio() < packProperties.getCompactionGarbageRatio()) {
+				continue;
+			}
+			try {
+				compact(segment);
+			} catch (IOException e) {
+				log.error("Unable to compact segment {}: {}", segment.getPath(), e.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Остановка фонового уплотнения и закрытие сегментов.
+	 */
+	@Override
+	public void close() throws IOException {
+		compactor.shutdownNow();
+		try {
+			compactor.awaitTermination(1, TimeUnit.MINUTES);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		for (Segment segment : segments.values()) {
+			segment.retire();
+		}
+	}
+
+	/**
+	 * Открытие существующих сегментов и восстановление индекса.
+	 * Недописанная запись в конце последнего сегмента отбрасывается.
+	 */
+	private void open() throws IOException {
+		List<Path> paths;
+		try (Stream<Path> files = Files.list(packProperties.getDirectory())) {
+			paths = files.filter(path -> parseSegmentId(path) >= 0).
+					sorted((first, second) -> Long.compare(parseSegmentId(first), parseSegmentId(second))).
+					collect(Collectors.toList());
+		}
+
+		for (int i = 0; i < paths.size(); i++) {
+			Path path = paths.get(i);
+			Segment segment = new Segment(parseSegmentId(path), path);
+			segments.put(segment.getId(), segment);
+			recover(segment, i == paths.size() - 1);
+		}
+
+		Map.Entry<Long, Segment> last = segments.lastEntry();
+		if (last != null && last.getValue().size.get() < packProperties.getSegmentSize()) {
+			activeSegment = last.getValue();
+		} else {
+			activeSegment = createSegment(last == null ? 0 : last.getKey() + 1);
+		}
+	}
+
+	/**
+	 * Восстановление индекса по записям сегмента.
+	 */
+	private void recover(Segment segment, boolean last) throws IOException {
+		FileChannel channel = segment.channel();
+		long fileSize = channel.size();
+		long position = 0;
+		Record record;
+		while ((record = readRecord(channel, position, fileSize)) != null) {
+			if (last && record.getType() == TYPE_PUT &&
+					checksum(readValue(channel, record)) != record.getCrc()) {
+				break;
+			}
+			apply(segment, record);
+			position += record.getRecordLength();
+		}
+
+		if (position < fileSize) {
+			if (last) {
+				log.warn("Truncating incomplete record at {} in segment {}", position, segment.getPath());
+				channel.truncate(position);
+			} else {
+				log.error("Corrupted record at {} in segment {}, rest of segment is ignored",
+						position, segment.getPath());
+			}
+		}
+		segment.size.set(position);
+	}
+
+	/**
+	 * Применение записи сегмента к индексу при восстановлении.
+	 */
+	private void apply(Segment segment, Record record) {
+		Location previous;
+		if (record.getType() == TYPE_PUT) {
+			previous = index.put(record.getKey(), new Location(
+					segment.getId(),
+					record.getValueOffset(),
+					record.getValueLength(),
+					record.getCrc(),
+					record.getRecordLength()));
+			segment.liveBytes.addAndGet(record.getRecordLength());
+		} else {
+			previous = index.remove(record.getKey());
+		}
+		release(previous);
+	}
+
+	/**
+	 * Перенос живых записей сегмента в активный сегмент и удаление исходного сегмента.
+	 * Маркеры удаления переносятся, только если более старые сегменты могут содержать удалённую запись.
+	 * Перед удалением исходного сегмента перенесённые записи сбрасываются на диск,
+	 * иначе при сбое питания они могут быть потеряны вместе с уже удалённым исходным сегментом.
+	 */
+	private void compact(Segment segment) throws IOException {
+		boolean hasOlderSegments = segments.firstKey() < segment.getId();
+		Set<Segment> destinations = new HashSet<>();
+		FileChannel channel = segment.channel();
+		long fileSize = segment.size.get();
+		long position = 0;
+		Record record;
+		while ((record = readRecord(channel, position, fileSize)) != null) {
+			ioScheduler.acquire(IoClass.MAINTENANCE, record.getRecordLength());
+			if (record.getType() == TYPE_PUT) {
+				byte[] value = readValue(channel, record);
+				synchronized (writeLock) {
+					Location current = index.get(record.getKey());
+					if (current != null &&
+							current.getSegmentId() == segment.getId() &&
+							current.getOffset() == record.getValueOffset()) {
+						appendPut(record.getKey(), value, record.getCrc());
+						destinations.add(activeSegment);
+					}
+				}
+			} else if (hasOlderSegments) {
+				synchronized (writeLock) {
+					if (!index.containsKey(record.getKey())) {
+						append(TYPE_DELETE, record.getKey(), new byte[0], 0);
+						destinations.add(activeSegment);
+					}
+				}
+			}
+			position += record.getRecordLength();
+		}
+
+		for (Segment destination : destinations) {
+			destination.channel().force(true);
+		}
+		segments.remove(segment.getId());
+		segment.retire();
+		Files.delete(segment.getPath());
+		log.info("Segment {} compacted", segment.getPath());
+	}
+
+	/**
+	 * Дозапись содержимого и обновление индекса. Вызывается под блокировкой записи.
+	 */
+	private void appendPut(String key, byte[] content, int crc) throws IOException {
+		Location location = append(TYPE_PUT, key, content, crc);
+		activeSegment.liveBytes.addAndGet(location.getRecordLength());
+		release(index.put(key, location));
+	}
+
+	/**
+	 * Дозапись записи в активный сегмент. Вызывается под блокировкой записи.
+	 */
+	private Location append(byte type, String key, byte[] content, int crc) throws IOException {
+		byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+		int recordLength = HEADER_LENGTH + keyBytes.length + content.length;
+
+		Segment segment = activeSegment;
+		if (segment.size.get() > 0 && segment.size.get() + recordLength > packProperties.getSegmentSize()) {
+			segment = createSegment(segment.getId() + 1);
+			activeSegment = segment;
+		}
+
+		ByteBuffer buffer = ByteBuffer.allocate(recordLength);
+		buffer.putInt(MAGIC).
+				put(type).
+				putInt(keyBytes.length).
+				putInt(content.length).
+				putInt(crc).
+				put(keyBytes).
+				put(content).
+				flip();
+
+		long position = segment.size.get();
+		FileChannel channel = segment.channel();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer, position + buffer.position());
+		}
+		segment.size.addAndGet(recordLength);
+
+		return new Location(segment.getId(), position + HEADER_LENGTH + keyBytes.length, content.length, crc,
+				recordLength);
+	}
+
+	/**
+	 * Учёт того, что запись по указанному положению стала мусором.
+	 */
+	private void release(Location location) {
+		if (location == null) {
+			return;
+		}
+		Segment segment = segments.get(location.getSegmentId());
+		if (segment != null) {
+			segment.liveBytes.addAndGet(-location.getRecordLength());
+		}
+	}
+
+	/**
+	 * Создание нового сегмента.
+	 */
+	private Segment createSegment(long id) throws IOException {
+		String name = String.format("%s%016d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX);
+		Path path = packProperties.getDirectory().resolve(name);
+		Segment segment = new Segment(id, path);
+		segments.put(id, segment);
+		return segment;
+	}
+
+	/**
+	 * Чтение заголовка и ключа записи.
+	 * Возвращает null, если по указанной позиции нет полной корректной записи.
+	 */
+	private static Record readRecord(FileChannel channel, long position, long fileSize) throws IOException {
+		if (position + HEADER_LENGTH > fileSize) {
+			return null;
+		}
+		ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+		readFully(channel, header, position);
+		header.flip();
+
+		int magic = header.getInt();
+		byte type = header.get();
+		int keyLength = header.getInt();
+		int valueLength = header.getInt();
+		int crc = header.getInt();
+		long recordLength = (long) HEADER_LENGTH + keyLength + valueLength;
+		if (magic != MAGIC ||
+				(type != TYPE_PUT && type != TYPE_DELETE) ||
+				keyLength < 0 ||
+				valueLength < 0 ||
+				position + recordLength > fileSize) {
+			return null;
+		}
+
+		ByteBuffer key = ByteBuffer.allocate(keyLength);
+		readFully(channel, key, position + HEADER_LENGTH);
+		return new Record(type, new String(key.array(), StandardCharsets.UTF_8),
+				position + HEADER_LENGTH + keyLength, valueLength, crc, recordLength);
+	}
+
+	/**
+	 * Чтение содержимого записи.
+	 */
+	private static byte[] readValue(FileChannel channel, Record record) throws IOException {
+		ByteBuffer value = ByteBuffer.allocate(record.getValueLength());
+		readFully(channel, value, record.getValueOffset());
+		return value.array();
+	}
+
+	/**
+	 * Позиционное чтение до заполнения буфера.
+	 */
+	private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		int start = buffer.position();
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, position + buffer.position() - start);
+			if (read < 0) {
+				throw new EOFException("Unexpected end of segment at " + position);
+			}
+		}
+	}
+
+	/**
+	 * Вычисление контрольной суммы содержимого.
+	 */
+	private static int checksum(byte[] content) {
+		CRC32C crc32c = new CRC32C();
+		crc32c.update(content);
+		return (int) crc32c.getValue();
+	}
+
+	/**
+	 * Получение номера сегмента из имени файла или -1, если файл не является сегментом.
+	 */
+	private static long parseSegmentId(Path path) {
+		String name = path.getFileName().toString();
+		if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+			return -1;
+		}
+		try {
+			return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+}
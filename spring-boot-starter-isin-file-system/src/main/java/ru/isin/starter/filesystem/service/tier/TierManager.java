@@ -0,0 +1,410 @@
+package ru.isin.starter.filesystem.service.tier;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.isin.starter.filesystem.domain.TieringReportDTO;
+import ru.isin.starter.filesystem.properties.StorageProperties;
+import ru.isin.starter.filesystem.properties.TieringProperties;
+import ru.isin.starter.filesystem.service.io.IoClass;
+import ru.isin.starter.filesystem.service.io.IoScheduler;
+import ru.isin.starter.filesystem.service.layout.DirectoryLayout;
+import ru.isin.starter.filesystem.service.lock.FileLocks;
+import ru.isin.starter.filesystem.service.volume.VolumeSelector;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Управление горячим и холодным уровнями хранилища.
+ * <p>
+ * Новые файлы сохраняются на горячий уровень (тома из {@link StorageProperties}).
+ * Фоновая миграция переносит на холодный уровень файлы, которые не читались дольше заданного времени,
+ * и возвращает на горячий уровень файлы, которые часто читаются с холодного.
+ * Расположение файлов холодного уровня хранится в памяти, поэтому при чтении проверяется только один уровень.
+ * Файл переносится под блокировкой записи, общей с сервисом сохранения, поэтому изменение файла
+ * не теряется при переносе
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+@Slf4j
+public class TierManager implements Closeable {
+	private static final String MIGRATOR_THREAD_NAME = "isin-tier-migrator";
+	private static final String COPY_SUFFIX = ".tier";
+
+	private final StorageProperties storageProperties;
+	private final TieringProperties tieringProperties;
+	private final VolumeSelector volumeSelector;
+	private final IoScheduler ioScheduler;
+	private final FileLocks fileLocks;
+	private final Lock migrationLock = new ReentrantLock();
+	private final Map<String, Path> coldFiles = new ConcurrentHashMap<>();
+	private final Map<String, Long> lastReads = new ConcurrentHashMap<>();
+	private final Map<String, AtomicInteger> coldReads = new ConcurrentHashMap<>();
+	private final ScheduledExecutorService migrator;
+
+	/**
+	 * Констуктор с собственными планировщиком ввода-вывода и блокировками файлов.
+	 *
+	 * @param storageProperties параметры сохранения
+	 * @param tieringProperties параметры уровней хранилища
+	 * @throws IOException в случае ошибки чтения директории холодного уровня
+	 */
+	public TierManager(StorageProperties storageProperties, TieringProperties tieringProperties) throws IOException {
+		this(storageProperties, tieringProperties, new IoScheduler(storageProperties.getIo()), new FileLocks());
+	}
+
+	/**
+	 * Констуктор.
+	 * Загружает расположение файлов холодного уровня и запускает фоновую миграцию.
+	 *
+	 * @param storageProperties параметры сохранения
+	 * @param tieringProperties параметры уровней хранилища
+	 * @param ioScheduler       планировщик ввода-вывода, миграция выполняется в классе обслуживания
+	 * @param fileLocks         блокировки файлов, общие с сервисом сохранения
+	 * @throws IOException в случае ошибки чтения директории холодного уровня
+	 */
+	public TierManager(StorageProperties storageProperties,
+					   TieringProperties tieringProperties,
+					   IoScheduler ioScheduler,
+					   FileLocks fileLocks) throws IOException {
+		this.storageProperties = storageProperties;
+		this.tieringProperties = tieringProperties;
+		this.volumeSelector = new VolumeSelector(storageProperties.getVolumes());
+		this.ioScheduler = ioScheduler;
+		this.fileLocks = fileLocks;
+
+		Path coldDirectory = tieringProperties.getColdDirectory();
+		Files.createDirectories(coldDirectory);
+		for (Path file : listFiles(coldDirectory)) {
+			Path relativePath = coldDirectory.relativize(file);
+			coldFiles.put(VolumeSelector.routingKey(relativePath.toString()), relativePath);
+		}
+
+		migrator = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, MIGRATOR_THREAD_NAME);
+			thread.setDaemon(true);
+			return thread;
+		});
+		long interval = tieringProperties.getMigrationInterval().toMillis();
+		if (interval > 0) {
+			migrator.scheduleWithFixedDelay(this::migrate, interval, interval, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Метод для получения корневой директории холодного уровня.
+	 *
+	 * @return корневая директория
+	 */
+	public Path getColdDirectory() {
+		return tieringProperties.getColdDirectory();
+	}
+
+	/**
+	 * Метод для получения пути к файлу на холодном уровне.
+	 *
+	 * @param routingKey ключ распределения файла
+	 * @return путь к файлу или null, если файл находится на горячем уровне
+	 */
+	public Path getColdPath(String routingKey) {
+		Path relativePath = coldFiles.get(routingKey);
+		return relativePath == null ? null : tieringProperties.getColdDirectory().resolve(relativePath);
+	}
+
+	/**
+	 * Метод для учёта чтения файла.
+	 *
+	 * @param routingKey ключ распределения файла
+	 */
+	public void recordRead(String routingKey) {
+		if (coldFiles.containsKey(routingKey)) {
+			coldReads.computeIfAbsent(routingKey, key -> new AtomicInteger()).incrementAndGet();
+		} else {
+			lastReads.put(routingKey, System.currentTimeMillis());
+		}
+	}
+
+	/**
+	 * Метод для удаления информации об удалённом файле.
+	 *
+	 * @param routingKey ключ распределения файла
+	 */
+	public void forget(String routingKey) {
+		coldFiles.remove(routingKey);
+		lastReads.remove(routingKey);
+		coldReads.remove(routingKey);
+	}
+
+	/**
+	 * Метод для замены пути к файлу холодного уровня после его переноса внутри холодного уровня.
+	 *
+	 * @param routingKey ключ распределения файла
+	 * @param source     прежний путь относительно корневой директории холодного уровня
+	 * @param target     новый путь относительно корневой директории холодного уровня
+	 * @return true, если путь заменён, false, если файл за это время удалён или перенесён
+	 */
+	public boolean relocate(String routingKey, Path source, Path target) {
+		return coldFiles.replace(routingKey, source, target);
+	}
+
+	/**
+	 * Метод для выполнения операции, во время которой файлы не переносятся между уровнями.
+	 * Операция ожидает завершения переноса только одного файла, а не всей миграции.
+	 *
+	 * @param operation операция
+	 * @param <T>       тип результата операции
+	 * @return результат операции
+	 * @throws IOException в случае ошибки операции
+	 */
+	public synchronized <T> T suspendMigration(IoScheduler.IoOperation<T> operation) throws IOException {
+		return operation.execute();
+	}
+
+	/**
+	 * Метод для переноса файлов между уровнями.
+	 * Сначала на холодный уровень переносятся давно не читавшиеся файлы,
+	 * затем на горячий уровень возвращаются часто читаемые файлы холодного уровня.
+	 * Одновременно выполняется только одна миграция
+	 *
+	 * @return результаты миграции
+	 */
+	public TieringReportDTO migrate() {
+		migrationLock.lock();
+		try {
+			return migrateFiles();
+		} finally {
+			migrationLock.unlock();
+		}
+	}
+
+	/**
+	 * Остановка фоновой миграции.
+	 */
+	@Override
+	public void close() {
+		migrator.shutdownNow();
+	}
+
+	/**
+	 * Перенос файлов между уровнями.
+	 */
+	private TieringReportDTO migrateFiles() {
+		long demoted = 0;
+		long promoted = 0;
+		long failed = 0;
+
+		long threshold = System.currentTimeMillis() - tieringProperties.getDemotionAge().toMillis();
+		for (Path rootDirectory : storageProperties.getRootDirectories()) {
+			List<Path> files;
+			try {
+				files = listFiles(rootDirectory);
+			} catch (IOException e) {
+				log.error("Unable to list volume {}: {}", rootDirectory, e.getMessage());
+				continue;
+			}
+			for (Path file : files) {
+				Path relativePath = rootDirectory.relativize(file);
+				String routingKey = VolumeSelector.routingKey(relativePath.toString());
+				try {
+					if (getLastAccess(routingKey, file) <= threshold &&
+							demote(rootDirectory, relativePath, routingKey, threshold)) {
+						demoted++;
+					}
+				} catch (NoSuchFileException e) {
+					log.debug("File {} was deleted during tier migration", file);
+				} catch (IOException e) {
+					log.error("Unable to demote {}: {}", file, e.getMessage());
+					failed++;
+				}
+			}
+		}
+
+		for (Map.Entry<String, AtomicInteger> entry : coldReads.entrySet()) {
+			if (entry.getValue().get() < tieringProperties.getPromotionReadCount()) {
+				continue;
+			}
+			try {
+				if (promote(entry.getKey())) {
+					promoted++;
+				}
+			} catch (NoSuchFileException e) {
+				log.debug("File {} was deleted during tier migration", entry.getKey());
+			} catch (IOException e) {
+				log.error("Unable to promote {}: {}", entry.getKey(), e.getMessage());
+				failed++;
+			}
+		}
+		coldReads.clear();
+
+		log.info("Tier migration finished: {} files demoted, {} promoted, {} failed", demoted, promoted, failed);
+		return TieringReportDTO.builder().
+				demoted(demoted).
+				promoted(promoted).
+				failed(failed).
+				build();
+	}
+
+	/**
+	 * Время последнего обращения к файлу горячего уровня: последнее чтение или изменение.
+	 */
+	private long getLastAccess(String routingKey, Path file) throws IOException {
+		long lastModified = Files.getLastModifiedTime(file).toMillis();
+		return Math.max(lastModified, lastReads.getOrDefault(routingKey, 0L));
+	}
+
+	/**
+	 * Перенос файла на холодный уровень.
+	 * Файл копируется, затем регистрируется на холодном уровне и только после этого удаляется с горячего,
+	 * поэтому в любой момент чтение находит файл по пути, который возвращает {@link #getColdPath(String)}.
+	 * Ожидание ввода-вывода выполняется до получения блокировок, поэтому после него проверяется,
+	 * что файл не удалён и не изменён
+	 *
+	 * @return false, если файл удалён или изменён до переноса
+	 */
+	private boolean demote(Path rootDirectory, Path relativePath, String routingKey, long threshold)
+			throws IOException {
+		Path source = rootDirectory.resolve(relativePath);
+		Path target = tieringProperties.getColdDirectory().resolve(relativePath);
+		ioScheduler.acquire(IoClass.MAINTENANCE, Files.size(source));
+		boolean demoted;
+		synchronized (this) {
+			demoted = fileLocks.write(routingKey, () -> {
+				if (Files.notExists(source) || getLastAccess(routingKey, source) > threshold) {
+					return false;
+				}
+				copy(source, target);
+				coldFiles.put(routingKey, relativePath);
+				try {
+					Files.delete(source);
+				} catch (IOException e) {
+					coldFiles.remove(routingKey);
+					Files.deleteIfExists(target);
+					throw e;
+				}
+				lastReads.remove(routingKey);
+				return true;
+			});
+		}
+		if (demoted) {
+			deleteEmptyParents(source.getParent(), rootDirectory);
+		}
+		return demoted;
+	}
+
+	/**
+	 * Возврат файла на горячий уровень.
+	 * Как и при переносе на холодный уровень, ожидание ввода-вывода выполняется до получения блокировок
+	 *
+	 * @return false, если файл удалён или уже возвращён на горячий уровень
+	 */
+	private boolean promote(String routingKey) throws IOException {
+		Path coldPath = getColdPath(routingKey);
+		if (coldPath == null) {
+			return false;
+		}
+		ioScheduler.acquire(IoClass.MAINTENANCE, Files.size(coldPath));
+		Path source;
+		synchronized (this) {
+			source = fileLocks.write(routingKey, () -> {
+				Path relativePath = coldFiles.get(routingKey);
+				if (relativePath == null) {
+					return null;
+				}
+				Path cold = tieringProperties.getColdDirectory().resolve(relativePath);
+				Path target = volumeSelector.select(routingKey).resolve(relativePath);
+				copy(cold, target);
+				lastReads.put(routingKey, System.currentTimeMillis());
+				coldFiles.remove(routingKey);
+				try {
+					Files.delete(cold);
+				} catch (IOException e) {
+					coldFiles.put(routingKey, relativePath);
+					Files.deleteIfExists(target);
+					throw e;
+				}
+				return cold;
+			});
+		}
+		if (source == null) {
+			return false;
+		}
+		deleteEmptyParents(source.getParent(), tieringProperties.getColdDirectory());
+		return true;
+	}
+
+	/**
+	 * Удаление пустых директорий вверх по иерархии, не выходя за пределы корневой директории.
+	 */
+	private static void deleteEmptyParents(Path directory, Path rootDirectory) throws IOException {
+		while (directory != null && !directory.equals(rootDirectory) && directory.startsWith(rootDirectory)) {
+			try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+				if (entries.iterator().hasNext()) {
+					return;
+				}
+			}
+			try {
+				Files.delete(directory);
+			} catch (DirectoryNotEmptyException | NoSuchFileException e) {
+				return;
+			}
+			directory = directory.getParent();
+		}
+	}
+
+	/**
+	 * Копирование файла на другой уровень.
+	 * Файл копируется во временный файл рядом с новым путём, копия сбрасывается на диск
+	 * и переименовывается в новый путь, поэтому по новому пути файл появляется только целиком
+	 */
+	private static void copy(Path source, Path target) throws IOException {
+		Path temporary = target.resolveSibling(target.getFileName() + COPY_SUFFIX);
+		try {
+			DirectoryLayout.createInDirectory(target.getParent(), () -> Files.copy(source, temporary,
+					StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES));
+			try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+				channel.force(true);
+			}
+			Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			Files.deleteIfExists(temporary);
+			throw e;
+		}
+	}
+
+	/**
+	 * Получение списка файлов в директории и всех её поддиректориях.
+	 * Временные файлы записи и переноса не являются сохранёнными файлами и пропускаются.
+	 */
+	private static List<Path> listFiles(Path directory) throws IOException {
+		if (Files.notExists(directory)) {
+			return List.of();
+		}
+		try (Stream<Path> walk = Files.walk(directory)) {
+			return walk.filter(Files::isRegularFile).
+					filter(file -> !DirectoryLayout.isTemporary(file)).
+					collect(Collectors.toList());
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+}
@@ -0,0 +1,603 @@
+package ru.isin.starter.filesystem.service.upload;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import ru.isin.starter.filesystem.domain.UploadDTO;
+import ru.isin.starter.filesystem.domain.UploadRangeDTO;
+import ru.isin.starter.filesystem.properties.UploadProperties;
+import ru.isin.starter.filesystem.service.integrity.ChecksumStore;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * Управление загрузками файлов частями.
+ * <p>
+ * Для каждой загрузки создаётся временный файл полного размера, части записываются в него позиционной записью
+ * и могут приходить параллельно и в любом порядке. Полученные диапазоны дописываются в журнал загрузки
+ * после сброса данных на диск, поэтому после перезапуска загрузку можно продолжить с недостающих диапазонов.
+ * Вместе с диапазоном в журнал записывается контрольная сумма части, из которых при завершении загрузки
+ * собирается контрольная сумма файла.
+ * Состояние загрузки восстанавливается из директории загрузок при первом обращении к ней.
+ * С начала завершения загрузки и до её удаления запись частей отклоняется, поэтому опубликованный файл
+ * не изменяется запоздавшими частями
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+@Slf4j
+public class UploadManager implements Closeable {
+	private static final String CLEANER_THREAD_NAME = "isin-upload-cleaner";
+	private static final String DATA_SUFFIX = ".part";
+	private static final String META_SUFFIX = ".meta";
+	private static final String RANGES_SUFFIX = ".ranges";
+	private static final String NAME_PROPERTY = "name";
+	private static final String CONTENT_TYPE_PROPERTY = "contentType";
+	private static final String SIZE_PROPERTY = "size";
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final int HEAD_SIZE = 512;
+
+	private final UploadProperties uploadProperties;
+	private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+	private final ScheduledExecutorService cleaner;
+
+	/**
+	 * Загрузка, подготовленная к публикации.
+	 */
+	@Getter
+	@AllArgsConstructor(access = AccessLevel.PRIVATE)
+	public static class CompletedUpload {
+		/**
+		 * Идентификатор загрузки.
+		 */
+		private final String uploadId;
+
+		/**
+		 * Имя загруженного файла.
+		 */
+		private final String name;
+
+		/**
+		 * Тип содержимого или null, если он не передан при начале загрузки.
+		 */
+		private final String contentType;
+
+		/**
+		 * Размер загруженного файла.
+		 */
+		private final long size;
+
+		/**
+		 * Временный файл с загруженными данными.
+		 */
+		private final Path data;
+
+		/**
+		 * Начало загруженных данных для определения типа содержимого.
+		 */
+		private final byte[] head;
+
+		/**
+		 * Контрольная сумма CRC32C, собранная из контрольных сумм частей,
+		 * или null, если части перекрывались и контрольную сумму нужно вычислить по файлу.
+		 */
+		private final Integer checksum;
+	}
+
+	/**
+	 * Полученная часть загрузки.
+	 */
+	@AllArgsConstructor(access = AccessLevel.PRIVATE)
+	private static class Chunk {
+		private final long length;
+		private final int checksum;
+	}
+
+	/**
+	 * Открытая загрузка.
+	 */
+	private static class Session {
+		private final String uploadId;
+		private final String name;
+		private final String contentType;
+		private final long size;
+		private final Path journal;
+		private final FileChannel channel;
+		private final TreeMap<Long, Long> ranges = new TreeMap<>();
+		private final TreeMap<Long, Chunk> chunks = new TreeMap<>();
+		private boolean combinable = true;
+		private int writers;
+		private boolean completing;
+
+		private Session(String uploadId, String name, String contentType, long size, Path data, Path journal)
+				throws IOException {
+			this.uploadId = uploadId;
+			this.name = name;
+			this.contentType = contentType;
+			this.size = size;
+			this.journal = journal;
+			this.channel = FileChannel.open(data, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		}
+
+		/**
+		 * Учёт полученного диапазона с объединением соседних и пересекающихся диапазонов.
+		 */
+		private void add(long start, long end) {
+			Map.Entry<Long, Long> floor = ranges.floorEntry(start);
+			if (floor != null && floor.getValue() >= start) {
+				start = floor.getKey();
+				end = Math.max(end, floor.getValue());
+			}
+			Map.Entry<Long, Long> next;
+			while ((next = ranges.ceilingEntry(start)) != null && next.getKey() <= end) {
+				end = Math.max(end, next.getValue());
+				ranges.remove(next.getKey());
+			}
+			ranges.put(start, end);
+		}
+
+		/**
+		 * Учёт контрольной суммы части. Перекрывающиеся части нельзя объединить,
+		 * поэтому после перезаписи диапазона контрольная сумма файла вычисляется по файлу.
+		 */
+		private void addChunk(long offset, long length, int checksum) {
+			Map.Entry<Long, Chunk> floor = chunks.floorEntry(offset);
+			Long next = chunks.ceilingKey(offset);
+			if (floor != null && floor.getKey() + floor.getValue().length > offset ||
+					next != null && next < offset + length) {
+				combinable = false;
+			}
+			chunks.put(offset, new Chunk(length, checksum));
+		}
+
+		/**
+		 * Запись полученного диапазона и его контрольной суммы в журнал и учёт в памяти.
+		 */
+		private synchronized void record(long offset, long length, int checksum) throws IOException {
+			Files.writeString(journal, offset + " " + length + " " + checksum + "\n", StandardCharsets.US_ASCII,
+					StandardOpenOption.APPEND);
+			add(offset, offset + length);
+			addChunk(offset, length, checksum);
+		}
+
+		/**
+		 * Контрольная сумма файла, собранная из контрольных сумм частей по порядку,
+		 * или null, если части перекрываются или контрольная сумма части неизвестна.
+		 */
+		private synchronized Integer checksum() {
+			if (!combinable) {
+				return null;
+			}
+			int checksum = 0;
+			long position = 0;
+			for (Map.Entry<Long, Chunk> chunk : chunks.entrySet()) {
+				if (chunk.getKey() != position) {
+					return null;
+				}
+				checksum = ChecksumStore.combine(checksum, chunk.getValue().checksum, chunk.getValue().length);
+				position += chunk.getValue().length;
+			}
+			return position == size ? checksum : null;
+		}
+
+		/**
+		 * Начало записи части.
+		 */
+		private synchronized void beginWrite() {
+			if (completing) {
+				throw new IllegalStateException("Upload " + uploadId + " is being completed");
+			}
+			writers++;
+		}
+
+		/**
+		 * Окончание записи части.
+		 */
+		private synchronized void endWrite() {
+			if (--writers == 0) {
+				notifyAll();
+			}
+		}
+
+		/**
+		 * Запрет записи частей и ожидание окончания уже начатых записей.
+		 */
+		private synchronized void beginComplete() throws InterruptedIOException {
+			if (completing) {
+				throw new IllegalStateException("Upload " + uploadId + " is being completed");
+			}
+			completing = true;
+			while (writers > 0) {
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					completing = false;
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("Interrupted while waiting for chunks of upload " + uploadId);
+				}
+			}
+		}
+
+		/**
+		 * Запрет записи частей перед удалением заброшенной загрузки.
+		 * Загрузка, в которую пишутся части или которая завершается, не удаляется.
+		 */
+		private synchronized boolean beginExpire() {
+			if (completing || writers > 0) {
+				return false;
+			}
+			completing = true;
+			return true;
+		}
+
+		/**
+		 * Возобновление записи частей, если загрузка не может быть завершена или удалена.
+		 */
+		private synchronized void cancelComplete() {
+			completing = false;
+		}
+
+		/**
+		 * Признак начатого завершения загрузки.
+		 */
+		private synchronized boolean isCompleting() {
+			return completing;
+		}
+
+		/**
+		 * Количество полученных байт.
+		 */
+		private synchronized long received() {
+			long received = 0;
+			for (Map.Entry<Long, Long> range : ranges.entrySet()) {
+				received += range.getValue() - range.getKey();
+			}
+			return received;
+		}
+
+		/**
+		 * Представление состояния загрузки.
+		 */
+		private synchronized UploadDTO toDTO() {
+			List<UploadRangeDTO> list = new ArrayList<>(ranges.size());
+			for (Map.Entry<Long, Long> range : ranges.entrySet()) {
+				list.add(new UploadRangeDTO(range.getKey(), range.getValue() - range.getKey()));
+			}
+			return UploadDTO.builder().
+					uploadId(uploadId).
+					name(name).
+					size(size).
+					received(received()).
+					ranges(list).
+					build();
+		}
+	}
+
+	/**
+	 * Констуктор.
+	 * Запускает фоновое удаление заброшенных загрузок.
+	 *
+	 * @param uploadProperties параметры загрузки файлов частями
+	 * @throws IOException в случае ошибки создания директории загрузок
+	 */
+	public UploadManager(UploadProperties uploadProperties) throws IOException {
+		this.uploadProperties = uploadProperties;
+		Files.createDirectories(uploadProperties.getDirectory());
+
+		cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, CLEANER_THREAD_NAME);
+			thread.setDaemon(true);
+			return thread;
+		});
+		long expiration = uploadProperties.getExpiration().toMillis();
+		if (expiration > 0) {
+			cleaner.scheduleWithFixedDelay(this::expire, expiration, expiration, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Метод для начала загрузки.
+	 *
+	 * @param fileName    имя загружаемого файла
+	 * @param contentType тип содержимого или null, чтобы определить его по содержимому
+	 * @param size        размер загружаемого файла
+	 * @return состояние загрузки
+	 * @throws IOException в случае ошибки создания временного файла
+	 */
+	public UploadDTO begin(String fileName, String contentType, long size) throws IOException {
+		if (size < 0) {
+			throw new IllegalArgumentException("Upload size must not be negative: " + size);
+		}
+		String uploadId = UUID.randomUUID().toString();
+		Path data = resolve(uploadId, DATA_SUFFIX);
+		try (RandomAccessFile file = new RandomAccessFile(data.toFile(), "rw")) {
+			file.setLength(size);
+		}
+		Properties meta = new Properties();
+		meta.setProperty(NAME_PROPERTY, fileName);
+		meta.setProperty(SIZE_PROPERTY, Long.toString(size));
+		if (contentType != null) {
+			meta.setProperty(CONTENT_TYPE_PROPERTY, contentType);
+		}
+		Path journal = resolve(uploadId, RANGES_SUFFIX);
+		Files.createFile(journal);
+		try (Writer writer = Files.newBufferedWriter(resolve(uploadId, META_SUFFIX), StandardCharsets.UTF_8)) {
+			meta.store(writer, null);
+		}
+
+		Session session = new Session(uploadId, fileName, contentType, size, data, journal);
+		sessions.put(uploadId, session);
+		return session.toDTO();
+	}
+
+	/**
+	 * Метод для записи части загружаемого файла.
+	 * Части могут записываться параллельно, повторная запись диапазона перезаписывает данные.
+	 *
+	 * @param uploadId идентификатор загрузки
+	 * @param offset   смещение части в файле
+	 * @param data     данные части
+	 * @return количество записанных байт
+	 * @throws IOException              в случае ошибки записи или отсутствия загрузки
+	 * @throws IllegalArgumentException если часть выходит за пределы размера файла
+	 * @throws IllegalStateException    если загрузка завершается
+	 */
+	public long write(String uploadId, long offset, InputStream data) throws IOException {
+		Session session = get(uploadId);
+		if (offset < 0 || offset > session.size) {
+			throw new IllegalArgumentException("Chunk offset " + offset + " is out of upload size " + session.size);
+		}
+		session.beginWrite();
+		try {
+			byte[] array = new byte[BUFFER_SIZE];
+			CRC32C crc32c = new CRC32C();
+			long position = offset;
+			int read;
+			while ((read = data.readNBytes(array, 0, array.length)) > 0) {
+				if (position + read > session.size) {
+					throw new IllegalArgumentException("Chunk at offset " + offset + " exceeds upload size " +
+							session.size);
+				}
+				crc32c.update(array, 0, read);
+				ByteBuffer buffer = ByteBuffer.wrap(array, 0, read);
+				while (buffer.hasRemaining()) {
+					position += session.channel.write(buffer, position);
+				}
+			}
+			long length = position - offset;
+			if (length > 0) {
+				session.channel.force(false);
+				session.record(offset, length, (int) crc32c.getValue());
+			}
+			return length;
+		} finally {
+			session.endWrite();
+		}
+	}
+
+	/**
+	 * Метод для получения состояния загрузки.
+	 *
+	 * @param uploadId идентификатор загрузки
+	 * @return состояние загрузки
+	 * @throws IOException в случае ошибки чтения состояния или отсутствия загрузки
+	 */
+	public UploadDTO getStatus(String uploadId) throws IOException {
+		return get(uploadId).toDTO();
+	}
+
+	/**
+	 * Метод для подготовки полностью полученной загрузки к публикации.
+	 * Метод дожидается окончания начатых записей частей, после чего запись частей отклоняется.
+	 * Загрузка остаётся в директории загрузок до вызова {@link #finish(String)} или {@link #release(String)}.
+	 *
+	 * @param uploadId идентификатор загрузки
+	 * @return подготовленная загрузка
+	 * @throws IOException           в случае ошибки чтения или отсутствия загрузки
+	 * @throws IllegalStateException если получены не все части файла или загрузка уже завершается
+	 */
+	public CompletedUpload complete(String uploadId) throws IOException {
+		Session session = get(uploadId);
+		session.beginComplete();
+		ByteBuffer head;
+		try {
+			long received = session.received();
+			if (received != session.size) {
+				throw new IllegalStateException("Upload " + uploadId + " is incomplete: " + received + " of " +
+						session.size + " bytes received");
+			}
+			head = ByteBuffer.allocate((int) Math.min(HEAD_SIZE, session.size));
+			while (head.hasRemaining() && session.channel.read(head, head.position()) > 0) {
+				// Чтение начала файла до заполнения буфера
+			}
+			session.channel.force(true);
+		} catch (IOException | RuntimeException e) {
+			session.cancelComplete();
+			throw e;
+		}
+		session.channel.close();
+		return new CompletedUpload(uploadId, session.name, session.contentType, session.size,
+				resolve(uploadId, DATA_SUFFIX), Arrays.copyOf(head.array(), head.position()), session.checksum());
+	}
+
+	/**
+	 * Метод для удаления опубликованной загрузки из директории загрузок.
+	 *
+	 * @param uploadId идентификатор загрузки
+	 * @throws IOException в случае ошибки удаления
+	 */
+	public void finish(String uploadId) throws IOException {
+		Session session = sessions.remove(uploadId);
+		if (session != null) {
+			session.channel.close();
+		}
+		// Описание удаляется первым, чтобы запоздавшая запись части не восстановила загрузку
+		Files.deleteIfExists(resolve(uploadId, META_SUFFIX));
+		Files.deleteIfExists(resolve(uploadId, RANGES_SUFFIX));
+		Files.deleteIfExists(resolve(uploadId, DATA_SUFFIX));
+	}
+
+	/**
+	 * Метод для возобновления приёма частей загрузки, публикация которой не удалась.
+	 * Загрузка восстанавливается из директории загрузок при следующем обращении к ней.
+	 *
+	 * @param uploadId идентификатор загрузки
+	 */
+	public void release(String uploadId) {
+		sessions.remove(uploadId);
+	}
+
+	/**
+	 * Метод для отмены загрузки.
+	 *
+	 * @param uploadId идентификатор загрузки
+	 * @throws IOException           в случае ошибки удаления или отсутствия загрузки
+	 * @throws IllegalStateException если загрузка завершается
+	 */
+	public void abort(String uploadId) throws IOException {
+		if (get(uploadId).isCompleting()) {
+			throw new IllegalStateException("Upload " + uploadId + " is being completed");
+		}
+		finish(uploadId);
+	}
+
+	/**
+	 * Метод для удаления загрузок, в которые давно не записывались части.
+	 * Загрузки, в которые в этот момент записываются части или которые завершаются, пропускаются.
+	 */
+	public void expire() {
+		long threshold = System.currentTimeMillis() - uploadProperties.getExpiration().toMillis();
+		try (DirectoryStream<Path> metas = Files.newDirectoryStream(uploadProperties.getDirectory(),
+				"*" + META_SUFFIX)) {
+			for (Path meta : metas) {
+				String fileName = meta.getFileName().toString();
+				String uploadId = fileName.substring(0, fileName.length() - META_SUFFIX.length());
+				Session session = sessions.get(uploadId);
+				if (session != null && !session.beginExpire()) {
+					continue;
+				}
+				boolean expired = false;
+				try {
+					expired = Files.getLastModifiedTime(resolve(uploadId, RANGES_SUFFIX)).toMillis() <= threshold;
+					if (expired) {
+						log.info("Upload {} expired", uploadId);
+						finish(uploadId);
+					}
+				} catch (IOException e) {
+					log.error("Unable to expire upload {}: {}", uploadId, e.getMessage());
+				} finally {
+					if (session != null && !expired) {
+						session.cancelComplete();
+					}
+				}
+			}
+		} catch (IOException e) {
+			log.error("Unable to list uploads: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * Остановка фонового удаления и закрытие открытых загрузок.
+	 */
+	@Override
+	public void close() {
+		cleaner.shutdownNow();
+		for (Session session : sessions.values()) {
+			try {
+				session.channel.close();
+			} catch (IOException e) {
+				log.error("Unable to close upload {}: {}", session.uploadId, e.getMessage());
+			}
+		}
+		sessions.clear();
+	}
+
+	/**
+	 * Получение открытой загрузки или её восстановление из директории загрузок.
+	 */
+	private Session get(String uploadId) throws IOException {
+		UUID.fromString(uploadId);
+		Session session = sessions.get(uploadId);
+		if (session != null) {
+			return session;
+		}
+		synchronized (sessions) {
+			session = sessions.get(uploadId);
+			if (session == null) {
+				session = load(uploadId);
+				sessions.put(uploadId, session);
+			}
+			return session;
+		}
+	}
+
+	/**
+	 * Восстановление загрузки по её файлам.
+	 */
+	private Session load(String uploadId) throws IOException {
+		Path metaPath = resolve(uploadId, META_SUFFIX);
+		if (Files.notExists(metaPath)) {
+			throw new NoSuchFileException("Upload " + uploadId + " not found");
+		}
+		Properties meta = new Properties();
+		try (Reader reader = Files.newBufferedReader(metaPath, StandardCharsets.UTF_8)) {
+			meta.load(reader);
+		}
+		Path journal = resolve(uploadId, RANGES_SUFFIX);
+		Session session = new Session(uploadId,
+				meta.getProperty(NAME_PROPERTY),
+				meta.getProperty(CONTENT_TYPE_PROPERTY),
+				Long.parseLong(meta.getProperty(SIZE_PROPERTY)),
+				resolve(uploadId, DATA_SUFFIX),
+				journal);
+		for (String line : Files.readAllLines(journal, StandardCharsets.US_ASCII)) {
+			String[] range = line.split(" ");
+			if (range.length >= 2) {
+				long offset = Long.parseLong(range[0]);
+				long length = Long.parseLong(range[1]);
+				session.add(offset, offset + length);
+				if (range.length == 3) {
+					session.addChunk(offset, length, Integer.parseInt(range[2]));
+				} else {
+					// Журнал прежнего формата не содержит контрольных сумм частей
+					session.combinable = false;
+				}
+			}
+		}
+		return session;
+	}
+
+	/**
+	 * Путь к файлу загрузки.
+	 */
+	private Path resolve(String uploadId, String suffix) {
+		return uploadProperties.getDirectory().resolve(uploadId + suffix);
+	}
+}
@@ -0,0 +1,219 @@
+package ru.isin.starter.filesystem.service.volume;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.isin.starter.filesystem.domain.RebalanceReportDTO;
+import ru.isin.starter.filesystem.properties.StorageProperties;
+import ru.isin.starter.filesystem.service.StorageService;
+import ru.isin.starter.filesystem.service.io.IoClass;
+import ru.isin.starter.filesystem.service.io.IoScheduler;
+import ru.isin.starter.filesystem.service.layout.DirectoryLayout;
+import ru.isin.starter.filesystem.service.lock.FileLocks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Инструмент для перераспределения сохранённых файлов между томами после изменения их состава или весов.
+ * <p>
+ * Каждый том просматривается параллельно по директориям верхнего уровня,
+ * файлы, для которых {@link VolumeSelector} выбирает другой том, перемещаются на него
+ * с сохранением относительного пути. Файл перемещается под блокировкой и появляется на новом томе целиком
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+@Slf4j
+public class VolumeRebalancer {
+	private static final String THREAD_NAME = "isin-volume-rebalancer";
+	private static final String COPY_SUFFIX = ".rebalance";
+
+	private final StorageProperties storageProperties;
+	private final StorageService storageService;
+	private final VolumeSelector volumeSelector;
+	private final IoScheduler ioScheduler;
+	private final FileLocks fileLocks;
+
+	/**
+	 * Констуктор с собственными планировщиком ввода-вывода и блокировками файлов.
+	 *
+	 * @param storageProperties параметры сохранения
+	 * @param storageService    сервис для сохранения файлов, используется для удаления пустых директорий
+	 */
+	public VolumeRebalancer(StorageProperties storageProperties, StorageService storageService) {
+		this(storageProperties, storageService, new IoScheduler(storageProperties.getIo()), new FileLocks());
+	}
+
+	/**
+	 * Констуктор.
+	 *
+	 * @param storageProperties параметры сохранения
+	 * @param storageService    сервис для сохранения файлов, используется для удаления пустых директорий
+	 * @param ioScheduler       планировщик ввода-вывода, перемещение выполняется в классе обслуживания
+	 * @param fileLocks         блокировки файлов, общие с сервисом сохранения
+	 */
+	public VolumeRebalancer(StorageProperties storageProperties,
+							StorageService storageService,
+							IoScheduler ioScheduler,
+							FileLocks fileLocks) {
+		this.storageProperties = storageProperties;
+		this.storageService = storageService;
+		this.volumeSelector = new VolumeSelector(storageProperties.getVolumes());
+		this.ioScheduler = ioScheduler;
+		this.fileLocks = fileLocks;
+	}
+
+	/**
+	 * Метод для перемещения файлов на тома, выбранные текущей конфигурацией.
+	 *
+	 * @param parallelism количество потоков, обрабатывающих директории
+	 * @return результаты перераспределения
+	 * @throws IOException в случае ошибки чтения корневых директорий томов
+	 */
+	public RebalanceReportDTO rebalance(int parallelism) throws IOException {
+		AtomicLong scanned = new AtomicLong();
+		AtomicLong moved = new AtomicLong();
+		AtomicLong failed = new AtomicLong();
+
+		List<Callable<Void>> tasks = new ArrayList<>();
+		for (Path root : storageProperties.getRootDirectories()) {
+			if (Files.notExists(root)) {
+				continue;
+			}
+			try (Stream<Path> entries = Files.list(root)) {
+				entries.forEach(entry -> tasks.add(() -> {
+					rebalance(root, entry, scanned, moved, failed);
+					return null;
+				}));
+			}
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+			Thread thread = new Thread(runnable, THREAD_NAME);
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			for (Future<Void> future : executor.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Rebalance was interrupted", e);
+		} catch (ExecutionException e) {
+			throw new IOException("Unable to rebalance volumes: " + e.getCause().getMessage(), e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+
+		log.info("Volumes rebalanced: {} files scanned, {} moved, {} failed", scanned, moved, failed);
+		return RebalanceReportDTO.builder().
+				scanned(scanned.get()).
+				moved(moved.get()).
+				failed(failed.get()).
+				build();
+	}
+
+	/**
+	 * Перемещение файлов одной директории верхнего уровня.
+	 */
+	private void rebalance(Path root, Path directory, AtomicLong scanned, AtomicLong moved, AtomicLong failed)
+			throws IOException {
+		List<Path> files;
+		try (Stream<Path> walk = Files.walk(directory)) {
+			files = walk.filter(Files::isRegularFile).collect(Collectors.toList());
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+
+		for (Path file : files) {
+			if (DirectoryLayout.isTemporary(file)) {
+				continue;
+			}
+			scanned.incrementAndGet();
+			Path relativePath = root.relativize(file);
+			String routingKey = VolumeSelector.routingKey(relativePath.toString());
+			Path targetRoot = volumeSelector.select(routingKey);
+			if (targetRoot.equals(root)) {
+				continue;
+			}
+			try {
+				Path target = targetRoot.resolve(relativePath);
+				ioScheduler.acquire(IoClass.MAINTENANCE, Files.size(file));
+				if (fileLocks.write(routingKey, () -> move(file, target))) {
+					// Очистка не блокирует файлы: файл, параллельно создаваемый в директории, создаёт её повторно
+					storageService.clearSubtree(file.getParent());
+					moved.incrementAndGet();
+				}
+			} catch (NoSuchFileException e) {
+				log.debug("File {} was deleted during rebalance", file);
+			} catch (IOException e) {
+				log.error("Unable to move {} to volume {}: {}", file, targetRoot, e.getMessage());
+				failed.incrementAndGet();
+			}
+		}
+	}
+
+	/**
+	 * Перемещение файла на другой том.
+	 * Если тома находятся на разных файловых системах, файл копируется во временный файл рядом с новым путём,
+	 * копия сбрасывается на диск и переименовывается в новый путь, и только после этого исходный файл удаляется.
+	 * Поэтому по новому пути файл появляется целиком, а прерванное перемещение оставляет исходный файл.
+	 * Директории нового пути создаются повторно, если их удалила параллельная очистка пустых директорий
+	 *
+	 * @return false, если файл удалён
+	 */
+	private static boolean move(Path source, Path target) throws IOException {
+		if (Files.notExists(source)) {
+			return false;
+		}
+		if (Files.exists(target)) {
+			throw new FileAlreadyExistsException(target.toString());
+		}
+		DirectoryLayout.createInDirectory(target.getParent(), () -> {
+			try {
+				return Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				// Тома находятся на разных файловых системах
+			}
+			return copy(source, target);
+		});
+		return true;
+	}
+
+	/**
+	 * Копирование файла через временный файл и удаление исходного файла.
+	 */
+	private static Path copy(Path source, Path target) throws IOException {
+		Path temporary = target.resolveSibling(target.getFileName() + COPY_SUFFIX);
+		try {
+			Files.copy(source, temporary, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+			try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+				channel.force(true);
+			}
+			Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			Files.deleteIfExists(temporary);
+			throw e;
+		}
+		Files.delete(source);
+		return target;
+	}
+}
@@ -0,0 +1,110 @@
+package ru.isin.starter.filesystem.service.volume;
+
+import ru.isin.starter.filesystem.properties.StorageProperties;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Выбор тома для хранения файла при помощи взвешенного рандеву-хэширования.
+ * <p>
+ * Для каждой пары "ключ - том" вычисляется псевдослучайная оценка с учётом веса тома,
+ * файл сохраняется на том с максимальной оценкой.
+ * При добавлении тома переезжают только те файлы, для которых новый том получил максимальную оценку
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ * @since 2.1.0
+ */
+public class VolumeSelector {
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+	private static final double UNIT = 0x1.0p-53;
+
+	private final List<StorageProperties.Volume> volumes;
+	private final long[] seeds;
+
+	/**
+	 * Констуктор.
+	 *
+	 * @param volumes тома хранилища
+	 */
+	public VolumeSelector(List<StorageProperties.Volume> volumes) {
+		this.volumes = List.copyOf(volumes);
+		this.seeds = new long[volumes.size()];
+		for (int i = 0; i < seeds.length; i++) {
+			seeds[i] = hash(volumes.get(i).getPath().toString());
+		}
+	}
+
+	/**
+	 * Метод для получения ключа распределения по хэшу имени файла.
+	 * Ключ не зависит от иерархии директорий, поэтому может быть восстановлен по пути сохранённого файла
+	 *
+	 * @param hash хэш имени файла или путь к файлу относительно корня тома
+	 * @return ключ распределения
+	 */
+	public static String routingKey(String hash) {
+		StringBuilder key = new StringBuilder(hash.length());
+		for (int i = 0; i < hash.length(); i++) {
+			char c = hash.charAt(i);
+			if (c != '/' && c != File.separatorChar) {
+				key.append(c);
+			}
+		}
+		return key.toString();
+	}
+
+	/**
+	 * Метод для выбора корневой директории тома.
+	 *
+	 * @param routingKey ключ распределения
+	 * @return корневая директория тома
+	 */
+	public Path select(String routingKey) {
+		if (volumes.size() == 1) {
+			return volumes.get(0).getPath();
+		}
+		long keyHash = hash(routingKey);
+		int best = 0;
+		double bestScore = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < volumes.size(); i++) {
+			double score = score(keyHash, seeds[i], volumes.get(i).getWeight());
+			if (score > bestScore) {
+				bestScore = score;
+				best = i;
+			}
+		}
+		return volumes.get(best).getPath();
+	}
+
+	/**
+	 * Взвешенная оценка пары "ключ - том": weight / -ln(u), где u равномерно распределено на (0, 1).
+	 */
+	private static double score(long keyHash, long seed, double weight) {
+		double uniform = ((mix(keyHash ^ seed) >>> 11) + 0.5) * UNIT;
+		return weight / -Math.log(uniform);
+	}
+
+	/**
+	 * Хэш-функция FNV-1a.
+	 */
+	private static long hash(String value) {
+		long hash = FNV_OFFSET_BASIS;
+		for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+			hash ^= b & 0xff;
+			hash *= FNV_PRIME;
+		}
+		return hash;
+	}
+
+	/**
+	 * Перемешивание битов (финализатор SplitMix64).
+	 */
+	private static long mix(long value) {
+		value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+		value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+		return value ^ (value >>> 31);
+	}
+}
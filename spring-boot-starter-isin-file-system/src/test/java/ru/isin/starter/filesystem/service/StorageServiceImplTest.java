@@ -10,16 +10,24 @@ import ru.isin.starter.filesystem.domain.FileDTO;
 import ru.isin.starter.filesystem.properties.HashProperties;
 import ru.isin.starter.filesystem.properties.StorageProperties;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -39,6 +47,13 @@ class StorageServiceImplTest {
 	private static final String UPDATED_CONTENT_TYPE = "updated text";
 	private static final byte[] UPDATED_CONTENT = "updated content".getBytes();
 
+	private static final String APPENDED_NAME = "AppendedTest.txt";
+	private static final String DETECTED_NAME = "DetectedTest.bin";
+	private static final byte[] PNG_CONTENT = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13};
+	private static final byte[] PDF_CONTENT = "%PDF-1.7\n%binary".getBytes();
+	private static final String CLEARED_NAME = "ClearedTest.txt";
+	private static final int CLEAR_ITERATIONS = 2000;
+
 	private static final String ROOT_DIRECTORY = "src/test/files";
 	private static final String HASHING_ALGORITHM = "MD5";
 	private static final int DIRECTORY_NESTING_LEVEL = 3;
@@ -202,6 +217,55 @@ class StorageServiceImplTest {
 		assertEquals(UPDATED_CONTENT.length, updatedFileDTO.getSize());
 	}
 
+	/**
+	 * Тестирование определения типа содержимого методами {@link StorageServiceImpl#save(Path)}
+	 * и {@link StorageServiceImpl#update(Path, Path)}.
+	 */
+	@Test
+	public void testDetectContentType() throws IOException {
+		StorageService storageService = initStorageService();
+		Path directory = Files.createTempDirectory("isin-content-type");
+		try {
+			Path picture = Files.write(directory.resolve(DETECTED_NAME), PNG_CONTENT);
+			FileDTO fileDTO = storageService.save(picture);
+			assertEquals(DETECTED_NAME, fileDTO.getName());
+			assertEquals("image/png", fileDTO.getContentType());
+
+			Path document = Files.write(directory.resolve(UPDATED_NAME), PDF_CONTENT);
+			FileDTO updatedFileDTO = storageService.update(Paths.get(DETECTED_NAME), document);
+			assertEquals("application/pdf", updatedFileDTO.getContentType());
+			assertEquals(PDF_CONTENT.length, updatedFileDTO.getSize());
+		} finally {
+			FileSystemUtils.deleteRecursively(directory);
+		}
+	}
+
+	/**
+	 * Тестирование методов {@link StorageServiceImpl#append(Path, InputStream)}
+	 * и {@link StorageServiceImpl#write(Path, long, ReadableByteChannel)}.
+	 */
+	@Test
+	public void testAppendAndWrite() throws IOException {
+		StorageService storageService = initStorageService();
+
+		FileDTO fileDTO = storageService.save(new ByteArrayInputStream(CONTENT), APPENDED_NAME, CONTENT_TYPE);
+
+		FileDTO appended = storageService.append(Paths.get(APPENDED_NAME),
+				new ByteArrayInputStream(UPDATED_CONTENT));
+		assertEquals(fileDTO.getPath(), appended.getPath());
+		assertEquals(CONTENT.length + UPDATED_CONTENT.length, appended.getSize());
+		assertEquals("contentupdated content", new String(storageService.read(Paths.get(APPENDED_NAME))));
+
+		FileDTO written = storageService.write(Paths.get(APPENDED_NAME), 3,
+				Channels.newChannel(new ByteArrayInputStream("TENT".getBytes())));
+		assertEquals(CONTENT.length + UPDATED_CONTENT.length, written.getSize());
+		assertEquals("conTENTupdated content", new String(storageService.read(Paths.get(APPENDED_NAME))));
+
+		storageService.write(Paths.get(APPENDED_NAME), written.getSize() - 7,
+				Channels.newChannel(new ByteArrayInputStream("contents".getBytes())));
+		assertEquals("conTENTupdated contents", new String(storageService.read(Paths.get(APPENDED_NAME))));
+	}
+
 	/**
 	 * Тестирование метода {@link StorageServiceImpl#delete(Path)}.
 	 */
@@ -222,6 +286,37 @@ class StorageServiceImplTest {
 		}
 	}
 
+	/**
+	 * Тестирование сохранения файла во время параллельного удаления пустых директорий.
+	 */
+	@Test
+	public void testSaveDuringClear() throws IOException, InterruptedException {
+		StorageService storageService = initStorageService();
+		Path directory = storageService.getActualPath(Paths.get(CLEARED_NAME)).getParent();
+		AtomicBoolean done = new AtomicBoolean();
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		Thread cleaner = new Thread(() -> {
+			try {
+				while (!done.get()) {
+					storageService.clearSubtree(directory);
+				}
+			} catch (IOException | RuntimeException e) {
+				failure.set(e);
+			}
+		});
+		cleaner.start();
+		try {
+			for (int i = 0; i < CLEAR_ITERATIONS; i++) {
+				storageService.save(new ByteArrayInputStream(CONTENT), CLEARED_NAME, CONTENT_TYPE);
+				storageService.delete(Paths.get(CLEARED_NAME));
+			}
+		} finally {
+			done.set(true);
+			cleaner.join();
+		}
+		assertNull(failure.get());
+	}
+
 	/**
 	 * Проверка наличия директорий согласно указанной иерархии.
 	 */
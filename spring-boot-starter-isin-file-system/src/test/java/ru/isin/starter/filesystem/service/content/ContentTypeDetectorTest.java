@@ -0,0 +1,57 @@
+package ru.isin.starter.filesystem.service.content;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Тестирование работы {@link ContentTypeDetector}.
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ */
+class ContentTypeDetectorTest {
+	private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13};
+	private static final byte[] ZIP = {'P', 'K', 3, 4, 20, 0, 0, 0};
+	private static final byte[] WEBP = "RIFF\u0010\u0000\u0000\u0000WEBPVP8 ".getBytes(StandardCharsets.ISO_8859_1);
+	private static final byte[] MP4 = "\u0000\u0000\u0000\u0018ftypmp42".getBytes(StandardCharsets.ISO_8859_1);
+	private static final byte[] BINARY = {0, 1, 2, 3, (byte) 0xFF};
+
+	private final ContentTypeDetector contentTypeDetector = new ContentTypeDetector();
+
+	/**
+	 * Тестирование определения типа по сигнатуре, в том числе с произвольными байтами внутри сигнатуры.
+	 */
+	@Test
+	public void testSignature() {
+		assertEquals("image/png", contentTypeDetector.detect(PNG, "picture.bin"));
+		assertEquals("image/webp", contentTypeDetector.detect(WEBP, null));
+		assertEquals("video/mp4", contentTypeDetector.detect(MP4, "movie"));
+		assertEquals("application/pdf", contentTypeDetector.detect("%PDF-1.7".getBytes(), "document.txt"));
+		assertEquals("image/png", contentTypeDetector.detect(PNG, 8, null));
+	}
+
+	/**
+	 * Тестирование уточнения типа контейнера по расширению.
+	 */
+	@Test
+	public void testContainer() {
+		assertEquals("application/vnd.openxmlformats-officedocument.wordprocessingml.document",
+				contentTypeDetector.detect(ZIP, "Report.DOCX"));
+		assertEquals("application/zip", contentTypeDetector.detect(ZIP, "archive.unknown"));
+		assertEquals("image/svg+xml", contentTypeDetector.detect("<?xml version=\"1.0\"?><svg/>".getBytes(),
+				"icon.svg"));
+	}
+
+	/**
+	 * Тестирование определения типа по расширению и содержимому, если сигнатура не найдена.
+	 */
+	@Test
+	public void testFallback() {
+		assertEquals("text/csv", contentTypeDetector.detect("a,b\n1,2".getBytes(), "table.csv"));
+		assertEquals(ContentTypeDetector.TEXT_CONTENT_TYPE, contentTypeDetector.detect("BMW".getBytes(), "cars"));
+		assertEquals(ContentTypeDetector.DEFAULT_CONTENT_TYPE, contentTypeDetector.detect(BINARY, "data"));
+		assertEquals(ContentTypeDetector.DEFAULT_CONTENT_TYPE, contentTypeDetector.detect(new byte[0], "empty"));
+	}
+}
@@ -0,0 +1,255 @@
+package ru.isin.starter.filesystem.service.integrity;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+import ru.isin.starter.filesystem.domain.ScrubReportDTO;
+import ru.isin.starter.filesystem.properties.HashProperties;
+import ru.isin.starter.filesystem.properties.IntegrityProperties;
+import ru.isin.starter.filesystem.properties.PackProperties;
+import ru.isin.starter.filesystem.properties.StorageProperties;
+import ru.isin.starter.filesystem.service.HashServiceImpl;
+import ru.isin.starter.filesystem.service.StorageService;
+import ru.isin.starter.filesystem.service.StorageServiceImpl;
+import ru.isin.starter.filesystem.service.io.IoScheduler;
+import ru.isin.starter.filesystem.service.lock.FileLocks;
+import ru.isin.starter.filesystem.service.pack.SegmentStore;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тестирование контроля целостности сохранённых файлов.
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ */
+class IntegrityScrubberTest {
+	private static final String ROOT_DIRECTORY = "src/test/integrity";
+	private static final String FILES_DIRECTORY = ROOT_DIRECTORY + "/files";
+	private static final String SEGMENTS_DIRECTORY = ROOT_DIRECTORY + "/segments";
+	private static final String HASHING_ALGORITHM = "MD5";
+	private static final int DIRECTORY_NESTING_LEVEL = 2;
+	private static final int DIRECTORY_NAME_LENGTH = 2;
+	private static final int MIN_FILE_NAME_LENGTH = 3;
+	private static final long MAX_PACKED_SIZE = 16;
+	private static final int FILE_COUNT = 20;
+	private static final String CONTENT_TYPE = "text";
+
+	/**
+	 * Удаление созданных директорий и файлов.
+	 */
+	@AfterEach
+	public void clear() throws IOException {
+		FileSystemUtils.deleteRecursively(Path.of(ROOT_DIRECTORY));
+	}
+
+	/**
+	 * Тестирование обнаружения повреждённых файлов при чтении и фоновой проверкой.
+	 */
+	@Test
+	public void testScrub() throws IOException {
+		IntegrityProperties integrityProperties = new IntegrityProperties(
+				true,
+				true,
+				DataSize.ofMegabytes(1),
+				2,
+				Duration.ZERO);
+		ChecksumStore checksumStore = new ChecksumStore(integrityProperties);
+		FileLocks fileLocks = new FileLocks();
+		try (SegmentStore segmentStore = new SegmentStore(new PackProperties(
+				true,
+				SEGMENTS_DIRECTORY,
+				MAX_PACKED_SIZE,
+				1024 * 1024,
+				0.5,
+				Duration.ZERO))) {
+			StorageService storageService = StorageServiceImpl.builder().
+					hashServiceImpl(new HashServiceImpl(new HashProperties(HASHING_ALGORITHM))).
+					storageProperties(new StorageProperties(
+							FILES_DIRECTORY,
+							DIRECTORY_NESTING_LEVEL,
+							DIRECTORY_NAME_LENGTH,
+							MIN_FILE_NAME_LENGTH)).
+					segmentStore(segmentStore).
+					checksumStore(checksumStore).
+					fileLocks(fileLocks).
+					build();
+			for (int i = 0; i < FILE_COUNT; i++) {
+				storageService.save(new ByteArrayInputStream(largeContent(i)), "large" + i, CONTENT_TYPE);
+				storageService.save(new ByteArrayInputStream(("small" + i).getBytes()), "small" + i, CONTENT_TYPE);
+			}
+
+			List<ChecksumMismatchEvent> events = new CopyOnWriteArrayList<>();
+			IntegrityScrubber scrubber = new IntegrityScrubber(integrityProperties, checksumStore, storageService,
+					segmentStore, event -> events.add((ChecksumMismatchEvent) event), new IoScheduler(), fileLocks);
+			ScrubReportDTO clean = scrubber.scrub();
+			assertEquals(2 * FILE_COUNT, clean.getScanned());
+			assertEquals(0, clean.getMismatched());
+			assertEquals(0, clean.getUnverified());
+
+			Path largeFile = storageService.getActualPath(Paths.get("large0"));
+			corrupt(largeFile, largeContent(0));
+			corrupt(segmentStore.getSegmentPath(segmentStore.keys().first()), null);
+			assertThrows(ChecksumMismatchException.class, () -> storageService.read(Paths.get("large0")));
+			assertArrayEquals(largeContent(1), storageService.read(Paths.get("large1")));
+
+			ScrubReportDTO corrupted = scrubber.scrub();
+			scrubber.close();
+			assertEquals(2 * FILE_COUNT, corrupted.getScanned());
+			assertEquals(2, corrupted.getMismatched());
+			assertEquals(2, events.size());
+			assertTrue(events.stream().anyMatch(event -> event.getPath().equals(largeFile)));
+		}
+	}
+
+	/**
+	 * Тестирование пересчёта контрольной суммы при дозаписи и записи по смещению на месте и в копии файла.
+	 */
+	@Test
+	public void testIncrementalChecksum() throws IOException {
+		IntegrityProperties integrityProperties = new IntegrityProperties(
+				true,
+				true,
+				DataSize.ofMegabytes(1),
+				1,
+				Duration.ZERO);
+		ChecksumStore checksumStore = new ChecksumStore(integrityProperties);
+		Random random = new Random(1);
+		for (boolean atomicWrites : new boolean[]{false, true}) {
+			try (SegmentStore segmentStore = new SegmentStore(new PackProperties(
+					true,
+					SEGMENTS_DIRECTORY,
+					MAX_PACKED_SIZE,
+					1024 * 1024,
+					0.5,
+					Duration.ZERO))) {
+				StorageService storageService = StorageServiceImpl.builder().
+						hashServiceImpl(new HashServiceImpl(new HashProperties(HASHING_ALGORITHM))).
+						storageProperties(new StorageProperties(
+								FILES_DIRECTORY,
+								DIRECTORY_NESTING_LEVEL,
+								DIRECTORY_NAME_LENGTH,
+								MIN_FILE_NAME_LENGTH,
+								null,
+								null,
+								null,
+								atomicWrites)).
+						segmentStore(segmentStore).
+						checksumStore(checksumStore).
+						build();
+				String fileName = "modified" + atomicWrites;
+				ByteArrayOutputStream expected = new ByteArrayOutputStream();
+				expected.write("small".getBytes(StandardCharsets.UTF_8));
+				storageService.save(new ByteArrayInputStream(expected.toByteArray()), fileName, CONTENT_TYPE);
+
+				for (int i = 0; i < 10; i++) {
+					byte[] patch = new byte[random.nextInt(200_000)];
+					random.nextBytes(patch);
+					byte[] content = expected.toByteArray();
+					if (i % 2 == 0) {
+						storageService.append(Paths.get(fileName), new ByteArrayInputStream(patch));
+						expected.write(patch);
+					} else {
+						int offset = random.nextInt(content.length + 1);
+						storageService.write(Paths.get(fileName), offset,
+								Channels.newChannel(new ByteArrayInputStream(patch)));
+						expected.reset();
+						expected.write(content, 0, offset);
+						expected.write(patch);
+						if (offset + patch.length < content.length) {
+							expected.write(content, offset + patch.length, content.length - offset - patch.length);
+						}
+					}
+				}
+
+				Path file = storageService.getActualPath(Paths.get(fileName));
+				assertEquals(ChecksumStore.compute(expected.toByteArray()), checksumStore.read(file));
+				assertArrayEquals(expected.toByteArray(), storageService.read(Paths.get(fileName)));
+				assertThrows(IllegalArgumentException.class, () -> storageService.write(Paths.get(fileName),
+						expected.size() + 1, Channels.newChannel(new ByteArrayInputStream(new byte[1]))));
+				try (var files = Files.list(file.getParent())) {
+					assertEquals(1, files.count());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Тестирование вычисления контрольной суммы при дозаписи и замене перед данными длиной больше 4 ГБ.
+	 */
+	@Test
+	public void testLargeChecksumShift() {
+		byte[] head = "head".getBytes(StandardCharsets.UTF_8);
+		byte[] replaced = "old".getBytes(StandardCharsets.UTF_8);
+		byte[] replacement = "new".getBytes(StandardCharsets.UTF_8);
+		for (long length : new long[]{(1L << 29) + 7, (1L << 32) + 5}) {
+			CRC32C zeros = new CRC32C();
+			updateZeros(zeros, length);
+			CRC32C appended = new CRC32C();
+			appended.update(head);
+			updateZeros(appended, length);
+			assertEquals((int) appended.getValue(),
+					ChecksumStore.combine(ChecksumStore.compute(head), (int) zeros.getValue(), length));
+
+			CRC32C original = new CRC32C();
+			original.update(replaced);
+			updateZeros(original, length);
+			CRC32C modified = new CRC32C();
+			modified.update(replacement);
+			updateZeros(modified, length);
+			assertEquals((int) modified.getValue(), ChecksumStore.replace((int) original.getValue(),
+					ChecksumStore.compute(replaced), ChecksumStore.compute(replacement), length));
+		}
+	}
+
+	/**
+	 * Содержимое файла, которое не будет упаковано.
+	 */
+	private static byte[] largeContent(int number) {
+		return ("content of a file which is too large to be packed " + number).getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Добавление нулевых байт к вычисляемой контрольной сумме.
+	 */
+	private static void updateZeros(CRC32C crc32c, long length) {
+		byte[] zeros = new byte[1024 * 1024];
+		for (long left = length; left > 0; left -= zeros.length) {
+			crc32c.update(zeros, 0, (int) Math.min(left, zeros.length));
+		}
+	}
+
+	/**
+	 * Изменение одного байта файла без изменения размера и атрибутов.
+	 * Для сегмента изменяется последний байт, принадлежащий содержимому последней записи
+	 */
+	private static void corrupt(Path file, byte[] content) throws IOException {
+		long position = content == null ? Files.size(file) - 1 : content.length / 2;
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			ByteBuffer buffer = ByteBuffer.allocate(1);
+			channel.read(buffer, position);
+			buffer.put(0, (byte) (buffer.get(0) ^ 0xFF));
+			channel.write(buffer.rewind(), position);
+		}
+	}
+}
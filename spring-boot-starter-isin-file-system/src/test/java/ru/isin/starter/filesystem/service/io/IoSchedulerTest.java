@@ -0,0 +1,138 @@
+package ru.isin.starter.filesystem.service.io;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import ru.isin.starter.filesystem.properties.StorageProperties;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тестирование работы {@link IoScheduler}.
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ */
+class IoSchedulerTest {
+	private static final int MAINTENANCE_IOPS = 50;
+	private static final long MIN_THROTTLED_MILLIS = 400;
+	private static final Duration LONG_YIELD = Duration.ofSeconds(30);
+	private static final Duration SHORT_YIELD = Duration.ofMillis(100);
+
+	/**
+	 * Инициализация тестового экземпляра {@link IoScheduler}.
+	 *
+	 * @param maxYieldTime максимальное время, которое операция уступает операциям с большим приоритетом
+	 * @return сущность для тестов
+	 */
+	private IoScheduler initIoScheduler(Duration maxYieldTime) {
+		return new IoScheduler(new StorageProperties.Io(
+				null,
+				null,
+				new StorageProperties.IoLimit(DataSize.ofBytes(0), MAINTENANCE_IOPS),
+				maxYieldTime));
+	}
+
+	/**
+	 * Тестирование ограничения количества операций в секунду.
+	 */
+	@Test
+	public void testIopsLimit() throws Exception {
+		IoScheduler ioScheduler = initIoScheduler(SHORT_YIELD);
+		long start = System.nanoTime();
+		for (int i = 0; i < MAINTENANCE_IOPS * 3 / 2; i++) {
+			ioScheduler.acquire(IoClass.MAINTENANCE, 0);
+		}
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		assertTrue(elapsed >= MIN_THROTTLED_MILLIS, "Maintenance was not throttled: " + elapsed + "ms");
+
+		start = System.nanoTime();
+		for (int i = 0; i < MAINTENANCE_IOPS * 3 / 2; i++) {
+			ioScheduler.acquire(IoClass.INTERACTIVE, 0);
+		}
+		elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		assertTrue(elapsed < MIN_THROTTLED_MILLIS, "Interactive was throttled: " + elapsed + "ms");
+	}
+
+	/**
+	 * Тестирование уступки операций обслуживания выполняющимся операциям пользователя.
+	 */
+	@Test
+	public void testYield() throws Exception {
+		IoScheduler ioScheduler = initIoScheduler(LONG_YIELD);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Void> interactive = holdInteractive(ioScheduler, started, release);
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		CompletableFuture<Void> maintenance = CompletableFuture.runAsync(() -> {
+			try {
+				ioScheduler.acquire(IoClass.MAINTENANCE, 0);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+		assertThrows(TimeoutException.class, () -> maintenance.get(SHORT_YIELD.toMillis() * 3, TimeUnit.MILLISECONDS));
+		assertFalse(maintenance.isDone());
+
+		release.countDown();
+		interactive.get(5, TimeUnit.SECONDS);
+		maintenance.get(5, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Тестирование ограничения времени уступки.
+	 */
+	@Test
+	public void testYieldTimeout() throws Exception {
+		IoScheduler ioScheduler = initIoScheduler(SHORT_YIELD);
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		CompletableFuture<Void> interactive = holdInteractive(ioScheduler, started, release);
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+
+		long start = System.nanoTime();
+		CompletableFuture.runAsync(() -> {
+			try {
+				ioScheduler.acquire(IoClass.BATCH, 0);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}).get(5, TimeUnit.SECONDS);
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= SHORT_YIELD.toMillis());
+
+		release.countDown();
+		interactive.get(5, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Запуск операции пользователя, которая выполняется до освобождения защёлки.
+	 */
+	private static CompletableFuture<Void> holdInteractive(IoScheduler ioScheduler,
+														   CountDownLatch started,
+														   CountDownLatch release) {
+		return CompletableFuture.runAsync(() -> {
+			try {
+				ioScheduler.execute(IoClass.INTERACTIVE, 0, () -> {
+					started.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					return null;
+				});
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+}
@@ -0,0 +1,162 @@
+package ru.isin.starter.filesystem.service.layout;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+import ru.isin.starter.filesystem.domain.FanoutReportDTO;
+import ru.isin.starter.filesystem.domain.RelayoutReportDTO;
+import ru.isin.starter.filesystem.properties.HashProperties;
+import ru.isin.starter.filesystem.properties.StorageProperties;
+import ru.isin.starter.filesystem.service.HashService;
+import ru.isin.starter.filesystem.service.HashServiceImpl;
+import ru.isin.starter.filesystem.service.StorageService;
+import ru.isin.starter.filesystem.service.StorageServiceImpl;
+import ru.isin.starter.filesystem.service.io.IoScheduler;
+import ru.isin.starter.filesystem.service.lock.FileLocks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Base64;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тестирование работы {@link LayoutMigrator}, {@link FanoutAnalyzer} и {@link DirectoryLayout}.
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ */
+class LayoutMigratorTest {
+	private static final String ROOT_DIRECTORY = "src/test/layout";
+	private static final String HASHING_ALGORITHM = "MD5";
+	private static final int HASH_LENGTH = 24;
+	private static final int DIRECTORY_NAME_LENGTH = 1;
+	private static final int MIN_FILE_NAME_LENGTH = 5;
+	private static final int FILE_COUNT = 200;
+	private static final String CONTENT_TYPE = "text";
+
+	private final HashService hashService = new HashServiceImpl(new HashProperties(HASHING_ALGORITHM));
+	private final FileLocks fileLocks = new FileLocks();
+
+	/**
+	 * Инициализация тестового экзмеляра {@link StorageProperties}.
+	 *
+	 * @param directoryNestingLevel уровень вложенности директорий
+	 * @return сущность для тестов
+	 */
+	private StorageProperties initStorageProperties(int directoryNestingLevel) {
+		return new StorageProperties(
+				ROOT_DIRECTORY,
+				directoryNestingLevel,
+				DIRECTORY_NAME_LENGTH,
+				MIN_FILE_NAME_LENGTH);
+	}
+
+	/**
+	 * Инициализация тестового экзмеляра {@link StorageServiceImpl}.
+	 *
+	 * @param storageProperties параметры сохранения
+	 * @param storageLayout     схемы размещения файлов
+	 * @return сущность для тестов
+	 */
+	private StorageService initStorageService(StorageProperties storageProperties, StorageLayout storageLayout) {
+		return StorageServiceImpl.builder().
+				hashServiceImpl(hashService).
+				storageProperties(storageProperties).
+				storageLayout(storageLayout).
+				fileLocks(fileLocks).
+				build();
+	}
+
+	/**
+	 * Удаление созданных директорий и файлов.
+	 */
+	@AfterEach
+	public void clear() throws IOException {
+		FileSystemUtils.deleteRecursively(Path.of(ROOT_DIRECTORY));
+	}
+
+	/**
+	 * Тестирование восстановления хэша по пути, в том числе для хэшей с символом '/'.
+	 */
+	@Test
+	public void testRecoverHash() throws Exception {
+		DirectoryLayout[] layouts = {
+				new DirectoryLayout(1, 2, 5),
+				new DirectoryLayout(3, 2, 5),
+				new DirectoryLayout(4, 1, 5)};
+		for (int i = 0; i < FILE_COUNT * 10; i++) {
+			String hash = Base64.getEncoder().encodeToString(hashService.hash("file" + i));
+			assertEquals(HASH_LENGTH, hash.length());
+			for (DirectoryLayout layout : layouts) {
+				assertTrue(layout.recoverHashes(layout.getRelativePath(hash), HASH_LENGTH).contains(hash),
+						"Hash " + hash + " in layout " + layout);
+			}
+		}
+		assertEquals(Set.of("HByW/Sz4Mw2wv6k2zoLzuQ==", "HByWS/z4Mw2wv6k2zoLzuQ=="),
+				layouts[1].recoverHashes(Paths.get("HB", "yW", "S", "z4Mw2wv6k2zoLzuQ=="), HASH_LENGTH));
+		assertTrue(layouts[0].recoverHashes(Paths.get("ab", "cd", "efgh"), HASH_LENGTH).isEmpty());
+	}
+
+	/**
+	 * Тестирование переноса файлов в схему с большей вложенностью при продолжающемся чтении.
+	 */
+	@Test
+	public void testMigrate() throws Exception {
+		StorageProperties storageProperties = initStorageProperties(1);
+		StorageLayout storageLayout = StorageLayout.of(storageProperties);
+		StorageService storageService = initStorageService(storageProperties, storageLayout);
+		for (int i = 0; i < FILE_COUNT; i++) {
+			storageService.save(new ByteArrayInputStream(("content" + i).getBytes()), "file" + i, CONTENT_TYPE);
+		}
+
+		Path stored = storageService.getActualPath(Paths.get("file1"));
+		Path temporary = Files.write(stored.resolveSibling(stored.getFileName() + ".write"), "partial".getBytes());
+		DirectoryLayout target = new DirectoryLayout(3, DIRECTORY_NAME_LENGTH, MIN_FILE_NAME_LENGTH);
+		storageLayout.switchTo(target);
+		assertArrayEquals("content0".getBytes(), storageService.read(Paths.get("file0")));
+
+		RelayoutReportDTO report = new LayoutMigrator(storageProperties, storageLayout, HASH_LENGTH,
+				storageService, null, new IoScheduler(), fileLocks).migrate(target, 4);
+
+		assertTrue(report.getMoved() > FILE_COUNT / 2);
+		assertEquals(0, report.getFailed());
+		assertNull(storageLayout.getPrevious());
+		assertTrue(Files.exists(temporary));
+		for (int i = 0; i < FILE_COUNT; i++) {
+			Path fileName = Paths.get("file" + i);
+			Path actualPath = storageService.getActualPath(fileName);
+			assertEquals(target.getRelativePath(Base64.getEncoder().encodeToString(hashService.hash("file" + i))),
+					Paths.get(ROOT_DIRECTORY).relativize(actualPath));
+			assertArrayEquals(("content" + i).getBytes(), storageService.read(fileName));
+		}
+	}
+
+	/**
+	 * Тестирование оценки количества файлов и рекомендуемой схемы размещения.
+	 */
+	@Test
+	public void testAnalyze() throws IOException {
+		StorageProperties storageProperties = initStorageProperties(1);
+		StorageLayout storageLayout = StorageLayout.of(storageProperties);
+		StorageService storageService = initStorageService(storageProperties, storageLayout);
+		for (int i = 0; i < FILE_COUNT; i++) {
+			storageService.save(new ByteArrayInputStream(("content" + i).getBytes()), "file" + i, CONTENT_TYPE);
+		}
+
+		FanoutReportDTO report = new FanoutAnalyzer(storageProperties, storageLayout, HASH_LENGTH, new IoScheduler())
+				.analyze(FILE_COUNT, 2, 4);
+
+		assertEquals(FILE_COUNT, report.getEstimatedFiles());
+		assertEquals(1, report.getLevels().get(0).getSampledDirectories());
+		assertTrue(report.getLevels().get(1).getEstimatedDirectories() <= 64);
+		assertEquals(1, report.getRecommendedNameLength());
+		assertEquals(2, report.getRecommendedNestingLevel());
+	}
+}
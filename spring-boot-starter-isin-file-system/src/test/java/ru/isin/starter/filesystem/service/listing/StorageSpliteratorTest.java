@@ -0,0 +1,179 @@
+package ru.isin.starter.filesystem.service.listing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+import ru.isin.starter.filesystem.domain.FileDTO;
+import ru.isin.starter.filesystem.domain.FileFilterDTO;
+import ru.isin.starter.filesystem.domain.FilePageDTO;
+import ru.isin.starter.filesystem.properties.HashProperties;
+import ru.isin.starter.filesystem.properties.PackProperties;
+import ru.isin.starter.filesystem.properties.StorageProperties;
+import ru.isin.starter.filesystem.service.HashServiceImpl;
+import ru.isin.starter.filesystem.service.StorageService;
+import ru.isin.starter.filesystem.service.StorageServiceImpl;
+import ru.isin.starter.filesystem.service.layout.DirectoryLayout;
+import ru.isin.starter.filesystem.service.layout.StorageLayout;
+import ru.isin.starter.filesystem.service.pack.SegmentStore;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тестирование перечисления файлов при помощи {@link StorageSpliterator}.
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ */
+class StorageSpliteratorTest {
+	private static final String ROOT_DIRECTORY = "src/test/listing";
+	private static final String FILES_DIRECTORY = ROOT_DIRECTORY + "/files";
+	private static final String SEGMENTS_DIRECTORY = ROOT_DIRECTORY + "/segments";
+	private static final String HASHING_ALGORITHM = "MD5";
+	private static final int DIRECTORY_NESTING_LEVEL = 2;
+	private static final int DIRECTORY_NAME_LENGTH = 1;
+	private static final int MIN_FILE_NAME_LENGTH = 3;
+	private static final int HASH_LENGTH = 24;
+	private static final long MAX_PACKED_SIZE = 16;
+	private static final int SMALL_FILE_COUNT = 50;
+	private static final int LARGE_FILE_COUNT = 150;
+	private static final int PAGE_SIZE = 7;
+	private static final String CONTENT_TYPE = "text";
+
+	private SegmentStore segmentStore;
+	private StorageLayout storageLayout;
+	private StorageService storageService;
+
+	/**
+	 * Сохранение тестовых файлов: небольшие файлы упаковываются, остальные сохраняются в иерархию.
+	 */
+	@BeforeEach
+	public void init() throws IOException {
+		segmentStore = new SegmentStore(new PackProperties(
+				true,
+				SEGMENTS_DIRECTORY,
+				MAX_PACKED_SIZE,
+				1024 * 1024,
+				0.5,
+				Duration.ZERO));
+		StorageProperties storageProperties = new StorageProperties(
+				FILES_DIRECTORY,
+				DIRECTORY_NESTING_LEVEL,
+				DIRECTORY_NAME_LENGTH,
+				MIN_FILE_NAME_LENGTH);
+		storageLayout = StorageLayout.of(storageProperties);
+		storageService = StorageServiceImpl.builder().
+				hashServiceImpl(new HashServiceImpl(new HashProperties(HASHING_ALGORITHM))).
+				storageProperties(storageProperties).
+				storageLayout(storageLayout).
+				segmentStore(segmentStore).
+				build();
+
+		for (int i = 0; i < SMALL_FILE_COUNT; i++) {
+			storageService.save(new ByteArrayInputStream(("small" + i).getBytes()), "small" + i, CONTENT_TYPE);
+		}
+		for (int i = 0; i < LARGE_FILE_COUNT; i++) {
+			byte[] content = ("large content of file number " + i).getBytes();
+			storageService.save(new ByteArrayInputStream(content), "large" + i, CONTENT_TYPE);
+		}
+	}
+
+	/**
+	 * Удаление созданных директорий и файлов.
+	 */
+	@AfterEach
+	public void clear() throws IOException {
+		segmentStore.close();
+		FileSystemUtils.deleteRecursively(Path.of(ROOT_DIRECTORY));
+	}
+
+	/**
+	 * Тестирование последовательного и параллельного перечисления.
+	 */
+	@Test
+	public void testStream() throws IOException {
+		List<FileDTO> sequential = storageService.stream().collect(Collectors.toList());
+		assertEquals(SMALL_FILE_COUNT + LARGE_FILE_COUNT, sequential.size());
+		assertEquals(SMALL_FILE_COUNT + LARGE_FILE_COUNT,
+				sequential.stream().map(FileDTO::getName).distinct().count());
+		assertEquals(SMALL_FILE_COUNT, sequential.stream().filter(file -> file.getPath() == null).count());
+
+		List<FileDTO> parallel = storageService.stream().parallel().collect(Collectors.toList());
+		assertEquals(sequential, parallel);
+	}
+
+	/**
+	 * Тестирование отбора файлов по размеру и началу хэша.
+	 */
+	@Test
+	public void testFilter() throws IOException {
+		long large = storageService.stream(FileFilterDTO.builder().minSize(MAX_PACKED_SIZE + 1).build()).count();
+		assertEquals(LARGE_FILE_COUNT, large);
+
+		String prefix = storageService.stream().findFirst().orElseThrow().getName().substring(0, 1);
+		List<FileDTO> filtered = storageService.stream(FileFilterDTO.builder().prefix(prefix).build()).
+				collect(Collectors.toList());
+		assertTrue(!filtered.isEmpty() && filtered.size() < SMALL_FILE_COUNT + LARGE_FILE_COUNT);
+		assertTrue(filtered.stream().allMatch(file -> file.getName().startsWith(prefix)));
+	}
+
+	/**
+	 * Тестирование постраничного перечисления.
+	 */
+	@Test
+	public void testList() throws IOException {
+		FileFilterDTO filter = FileFilterDTO.builder().build();
+		List<FileDTO> files = new ArrayList<>();
+		String cursor = null;
+		do {
+			FilePageDTO page = storageService.list(filter, cursor, PAGE_SIZE);
+			assertTrue(page.getFiles().size() <= PAGE_SIZE);
+			files.addAll(page.getFiles());
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+
+		Set<String> names = new HashSet<>();
+		files.forEach(file -> assertTrue(names.add(file.getName())));
+		assertEquals(storageService.stream().collect(Collectors.toList()), files);
+
+		FilePageDTO last = storageService.list(filter, null, SMALL_FILE_COUNT + LARGE_FILE_COUNT + 1);
+		assertNull(last.getNextCursor());
+	}
+
+	/**
+	 * Тестирование того, что временные файлы и прежние копии перенесённых в новую схему файлов не перечисляются.
+	 */
+	@Test
+	public void testRelayoutCopies() throws IOException {
+		FileDTO moved = storageService.stream(FileFilterDTO.builder().minSize(MAX_PACKED_SIZE + 1).build()).
+				findFirst().orElseThrow();
+		Files.createFile(moved.getPath().resolveSibling(moved.getPath().getFileName() + ".write"));
+
+		DirectoryLayout previous = storageLayout.getCurrent();
+		DirectoryLayout target = new DirectoryLayout(1, DIRECTORY_NAME_LENGTH, MIN_FILE_NAME_LENGTH);
+		storageLayout.switchTo(target);
+		String hash = previous.recoverHashes(Paths.get(moved.getName()), HASH_LENGTH).iterator().next();
+		Path movedPath = Path.of(FILES_DIRECTORY).resolve(target.getRelativePath(hash));
+		Files.createDirectories(movedPath.getParent());
+		Files.createLink(movedPath, moved.getPath());
+
+		List<FileDTO> files = storageService.stream().collect(Collectors.toList());
+		assertEquals(SMALL_FILE_COUNT + LARGE_FILE_COUNT, files.size());
+		assertEquals(SMALL_FILE_COUNT + LARGE_FILE_COUNT, files.stream().map(FileDTO::getName).distinct().count());
+		assertTrue(files.stream().anyMatch(file -> movedPath.equals(file.getPath())));
+		assertTrue(files.stream().noneMatch(file -> moved.getPath().equals(file.getPath())));
+	}
+}
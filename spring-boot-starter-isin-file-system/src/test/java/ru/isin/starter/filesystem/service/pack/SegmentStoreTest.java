@@ -0,0 +1,137 @@
+package ru.isin.starter.filesystem.service.pack;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+import ru.isin.starter.filesystem.properties.PackProperties;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тестирование работы {@link SegmentStore}.
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ */
+class SegmentStoreTest {
+	private static final String DIRECTORY = "src/test/segments";
+	private static final long MAX_OBJECT_SIZE = 1024;
+	private static final long SEGMENT_SIZE = 256;
+	private static final double COMPACTION_GARBAGE_RATIO = 0.5;
+
+	private static final String KEY = "key";
+	private static final byte[] CONTENT = "content".getBytes();
+	private static final byte[] UPDATED_CONTENT = "updated content".getBytes();
+
+	/**
+	 * Инициализация тестового экзмеляра {@link PackProperties}.
+	 *
+	 * @return сущность для тестов
+	 */
+	private PackProperties initPackProperties() {
+		return new PackProperties(
+				true,
+				DIRECTORY,
+				MAX_OBJECT_SIZE,
+				SEGMENT_SIZE,
+				COMPACTION_GARBAGE_RATIO,
+				Duration.ZERO);
+	}
+
+	/**
+	 * Удаление созданных сегментов.
+	 */
+	@AfterEach
+	public void clear() throws IOException {
+		FileSystemUtils.deleteRecursively(Path.of(DIRECTORY));
+	}
+
+	/**
+	 * Тестирование сохранения, чтения и удаления упакованного файла.
+	 */
+	@Test
+	public void testPutReadDelete() throws IOException {
+		try (SegmentStore segmentStore = new SegmentStore(initPackProperties())) {
+			segmentStore.put(KEY, CONTENT);
+			assertTrue(segmentStore.contains(KEY));
+			assertArrayEquals(CONTENT, segmentStore.read(KEY));
+
+			segmentStore.put(KEY, UPDATED_CONTENT);
+			assertArrayEquals(UPDATED_CONTENT, segmentStore.read(KEY));
+
+			assertTrue(segmentStore.delete(KEY));
+			assertFalse(segmentStore.contains(KEY));
+			assertNull(segmentStore.read(KEY));
+			assertFalse(segmentStore.delete(KEY));
+		}
+	}
+
+	/**
+	 * Тестирование восстановления индекса при повторном открытии хранилища.
+	 */
+	@Test
+	public void testRecovery() throws IOException {
+		try (SegmentStore segmentStore = new SegmentStore(initPackProperties())) {
+			for (int i = 0; i < 20; i++) {
+				segmentStore.put(KEY + i, CONTENT);
+			}
+			segmentStore.delete(KEY + 0);
+			segmentStore.put(KEY + 1, UPDATED_CONTENT);
+		}
+
+		Path lastSegment;
+		try (Stream<Path> segments = Files.list(Path.of(DIRECTORY))) {
+			lastSegment = segments.max(Path::compareTo).orElseThrow();
+		}
+		try (FileChannel channel = FileChannel.open(lastSegment, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+			channel.write(ByteBuffer.wrap(new byte[]{0x49, 0x53}));
+		}
+
+		try (SegmentStore segmentStore = new SegmentStore(initPackProperties())) {
+			assertEquals(19, segmentStore.size());
+			assertFalse(segmentStore.contains(KEY + 0));
+			assertArrayEquals(UPDATED_CONTENT, segmentStore.read(KEY + 1));
+			assertArrayEquals(CONTENT, segmentStore.read(KEY + 19));
+		}
+	}
+
+	/**
+	 * Тестирование уплотнения сегментов.
+	 */
+	@Test
+	public void testCompaction() throws IOException {
+		try (SegmentStore segmentStore = new SegmentStore(initPackProperties())) {
+			for (int i = 0; i < 20; i++) {
+				segmentStore.put(KEY + i, CONTENT);
+			}
+			for (int i = 0; i < 18; i++) {
+				segmentStore.delete(KEY + i);
+			}
+			int segmentCount = segmentStore.getSegmentCount();
+
+			segmentStore.compact();
+
+			assertTrue(segmentStore.getSegmentCount() < segmentCount);
+			assertEquals(2, segmentStore.size());
+			assertArrayEquals(CONTENT, segmentStore.read(KEY + 18));
+			assertArrayEquals(CONTENT, segmentStore.read(KEY + 19));
+		}
+
+		try (SegmentStore segmentStore = new SegmentStore(initPackProperties())) {
+			assertEquals(2, segmentStore.size());
+			assertFalse(segmentStore.contains(KEY + 0));
+		}
+	}
+}
@@ -0,0 +1,127 @@
+package ru.isin.starter.filesystem.service.tier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+import ru.isin.starter.filesystem.domain.TieringReportDTO;
+import ru.isin.starter.filesystem.properties.HashProperties;
+import ru.isin.starter.filesystem.properties.StorageProperties;
+import ru.isin.starter.filesystem.properties.TieringProperties;
+import ru.isin.starter.filesystem.service.HashServiceImpl;
+import ru.isin.starter.filesystem.service.StorageService;
+import ru.isin.starter.filesystem.service.StorageServiceImpl;
+import ru.isin.starter.filesystem.service.io.IoScheduler;
+import ru.isin.starter.filesystem.service.lock.FileLocks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тестирование работы {@link TierManager}.
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ */
+class TierManagerTest {
+	private static final String ROOT_DIRECTORY = "src/test/tiers";
+	private static final String HOT_DIRECTORY = ROOT_DIRECTORY + "/hot";
+	private static final String COLD_DIRECTORY = ROOT_DIRECTORY + "/cold";
+	private static final String HASHING_ALGORITHM = "MD5";
+	private static final int DIRECTORY_NESTING_LEVEL = 2;
+	private static final int DIRECTORY_NAME_LENGTH = 2;
+	private static final int MIN_FILE_NAME_LENGTH = 3;
+	private static final int PROMOTION_READ_COUNT = 2;
+	private static final int FILE_COUNT = 10;
+	private static final String CONTENT_TYPE = "text";
+
+	private final FileLocks fileLocks = new FileLocks();
+
+	/**
+	 * Инициализация тестового экзмеляра {@link TierManager}.
+	 *
+	 * @param storageProperties параметры сохранения
+	 * @return сущность для тестов
+	 */
+	private TierManager initTierManager(StorageProperties storageProperties) throws IOException {
+		return new TierManager(storageProperties, new TieringProperties(
+				true,
+				COLD_DIRECTORY,
+				Duration.ZERO,
+				PROMOTION_READ_COUNT,
+				Duration.ZERO), new IoScheduler(storageProperties.getIo()), fileLocks);
+	}
+
+	/**
+	 * Инициализация тестового экзмеляра {@link StorageServiceImpl}.
+	 *
+	 * @param storageProperties параметры сохранения
+	 * @param tierManager       управление уровнями хранилища
+	 * @return сущность для тестов
+	 */
+	private StorageService initStorageService(StorageProperties storageProperties, TierManager tierManager) {
+		return StorageServiceImpl.builder().
+				hashServiceImpl(new HashServiceImpl(new HashProperties(HASHING_ALGORITHM))).
+				storageProperties(storageProperties).
+				tierManager(tierManager).
+				fileLocks(fileLocks).
+				build();
+	}
+
+	/**
+	 * Удаление созданных директорий и файлов.
+	 */
+	@AfterEach
+	public void clear() throws IOException {
+		FileSystemUtils.deleteRecursively(Path.of(ROOT_DIRECTORY));
+	}
+
+	/**
+	 * Тестирование переноса файлов на холодный уровень и обратно.
+	 */
+	@Test
+	public void testMigration() throws IOException {
+		StorageProperties storageProperties = new StorageProperties(
+				HOT_DIRECTORY,
+				DIRECTORY_NESTING_LEVEL,
+				DIRECTORY_NAME_LENGTH,
+				MIN_FILE_NAME_LENGTH);
+		try (TierManager tierManager = initTierManager(storageProperties)) {
+			StorageService storageService = initStorageService(storageProperties, tierManager);
+			for (int i = 0; i < FILE_COUNT; i++) {
+				storageService.save(new ByteArrayInputStream(("content" + i).getBytes()), "file" + i, CONTENT_TYPE);
+			}
+
+			TieringReportDTO demotion = tierManager.migrate();
+			assertEquals(FILE_COUNT, demotion.getDemoted());
+			Path fileName = Paths.get("file0");
+			assertTrue(storageService.getActualPath(fileName).startsWith(COLD_DIRECTORY));
+			for (int i = 0; i < PROMOTION_READ_COUNT; i++) {
+				assertArrayEquals("content0".getBytes(), storageService.read(fileName));
+			}
+
+			TieringReportDTO promotion = tierManager.migrate();
+			assertEquals(0, promotion.getDemoted());
+			assertEquals(1, promotion.getPromoted());
+			assertTrue(storageService.getActualPath(fileName).startsWith(HOT_DIRECTORY));
+			assertArrayEquals("content0".getBytes(), storageService.read(fileName));
+
+			Path coldFile = storageService.getActualPath(Paths.get("file1"));
+			storageService.delete(Paths.get("file1"));
+			assertTrue(Files.notExists(coldFile));
+			assertTrue(Files.exists(Path.of(COLD_DIRECTORY)));
+		}
+
+		try (TierManager tierManager = initTierManager(storageProperties)) {
+			StorageService storageService = initStorageService(storageProperties, tierManager);
+			assertTrue(storageService.getActualPath(Paths.get("file2")).startsWith(COLD_DIRECTORY));
+			assertArrayEquals("content2".getBytes(), storageService.read(Paths.get("file2")));
+		}
+	}
+}
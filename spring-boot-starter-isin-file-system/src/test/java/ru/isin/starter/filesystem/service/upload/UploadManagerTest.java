@@ -0,0 +1,301 @@
+package ru.isin.starter.filesystem.service.upload;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+import ru.isin.starter.filesystem.domain.FileDTO;
+import ru.isin.starter.filesystem.domain.UploadDTO;
+import ru.isin.starter.filesystem.domain.UploadRangeDTO;
+import ru.isin.starter.filesystem.properties.HashProperties;
+import ru.isin.starter.filesystem.properties.StorageProperties;
+import ru.isin.starter.filesystem.properties.UploadProperties;
+import ru.isin.starter.filesystem.service.HashServiceImpl;
+import ru.isin.starter.filesystem.service.StorageService;
+import ru.isin.starter.filesystem.service.StorageServiceImpl;
+import ru.isin.starter.filesystem.service.integrity.ChecksumStore;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тестирование загрузки файлов частями через {@link UploadManager}.
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ */
+class UploadManagerTest {
+	private static final String ROOT_DIRECTORY = "src/test/upload";
+	private static final String UPLOAD_DIRECTORY = "src/test/upload/uploads";
+	private static final String HASHING_ALGORITHM = "MD5";
+	private static final String FILE_NAME = "upload.bin";
+	private static final int CHUNK_SIZE = 1000;
+	private static final int CHUNK_COUNT = 50;
+
+	private final List<UploadManager> managers = new ArrayList<>();
+
+	/**
+	 * Инициализация тестового экзмеляра {@link UploadManager}.
+	 *
+	 * @return сущность для тестов
+	 */
+	private UploadManager initUploadManager() throws IOException {
+		UploadManager uploadManager = new UploadManager(
+				new UploadProperties(true, UPLOAD_DIRECTORY, Duration.ZERO));
+		managers.add(uploadManager);
+		return uploadManager;
+	}
+
+	/**
+	 * Инициализация тестового экзмеляра {@link StorageServiceImpl}.
+	 *
+	 * @param uploadManager управление загрузками частями
+	 * @return сущность для тестов
+	 */
+	private StorageService initStorageService(UploadManager uploadManager) {
+		return StorageServiceImpl.builder().
+				hashServiceImpl(new HashServiceImpl(new HashProperties(HASHING_ALGORITHM))).
+				storageProperties(new StorageProperties(ROOT_DIRECTORY, 2, 2, 5)).
+				uploadManager(uploadManager).
+				build();
+	}
+
+	/**
+	 * Удаление созданных директорий и файлов.
+	 */
+	@AfterEach
+	public void clear() throws IOException {
+		managers.forEach(UploadManager::close);
+		FileSystemUtils.deleteRecursively(Path.of(ROOT_DIRECTORY));
+	}
+
+	/**
+	 * Тестирование параллельной записи частей в произвольном порядке и публикации файла.
+	 */
+	@Test
+	public void testParallelUpload() throws Exception {
+		StorageService storageService = initStorageService(initUploadManager());
+		byte[] content = new byte[CHUNK_SIZE * CHUNK_COUNT - CHUNK_SIZE / 2];
+		new Random(1).nextBytes(content);
+
+		UploadDTO upload = storageService.beginUpload(FILE_NAME, null, content.length);
+		List<Integer> chunks = new ArrayList<>();
+		for (int i = 0; i < CHUNK_COUNT; i++) {
+			chunks.add(i);
+		}
+		Collections.shuffle(chunks, new Random(2));
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int chunk : chunks) {
+				futures.add(executor.submit(() -> {
+					int offset = chunk * CHUNK_SIZE;
+					int length = Math.min(CHUNK_SIZE, content.length - offset);
+					storageService.writeChunk(upload.getUploadId(), offset,
+							new ByteArrayInputStream(content, offset, length));
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		UploadDTO status = storageService.getUpload(upload.getUploadId());
+		assertEquals(content.length, status.getReceived());
+		assertEquals(List.of(new UploadRangeDTO(0, content.length)), status.getRanges());
+
+		FileDTO fileDTO = storageService.completeUpload(upload.getUploadId());
+		assertEquals(content.length, fileDTO.getSize());
+		assertEquals("application/octet-stream", fileDTO.getContentType());
+		assertTrue(Files.exists(fileDTO.getPath()));
+		assertArrayEquals(content, storageService.read(Paths.get(FILE_NAME)));
+		try (var uploads = Files.list(Path.of(UPLOAD_DIRECTORY))) {
+			assertFalse(uploads.findAny().isPresent());
+		}
+	}
+
+	/**
+	 * Тестирование продолжения загрузки после перезапуска и отказа в завершении неполной загрузки.
+	 */
+	@Test
+	public void testResumeUpload() throws Exception {
+		byte[] content = "first part, second part".getBytes();
+		StorageService storageService = initStorageService(initUploadManager());
+		String uploadId = storageService.beginUpload(FILE_NAME, "text/plain", content.length).getUploadId();
+		storageService.writeChunk(uploadId, 0, new ByteArrayInputStream(content, 0, 5));
+		storageService.writeChunk(uploadId, 12, new ByteArrayInputStream(content, 12, 6));
+		assertThrows(IllegalStateException.class, () -> storageService.completeUpload(uploadId));
+		assertThrows(IllegalArgumentException.class,
+				() -> storageService.writeChunk(uploadId, 20, new ByteArrayInputStream(content)));
+
+		StorageService restarted = initStorageService(initUploadManager());
+		UploadDTO status = restarted.getUpload(uploadId);
+		assertEquals(List.of(new UploadRangeDTO(0, 5), new UploadRangeDTO(12, 6)), status.getRanges());
+
+		restarted.writeChunk(uploadId, 5, new ByteArrayInputStream(content, 5, 7));
+		restarted.writeChunk(uploadId, 18, new ByteArrayInputStream(content, 18, 5));
+		FileDTO fileDTO = restarted.completeUpload(uploadId);
+		assertEquals("text/plain", fileDTO.getContentType());
+		assertArrayEquals(content, restarted.read(Paths.get(FILE_NAME)));
+	}
+
+	/**
+	 * Тестирование сборки контрольной суммы файла из контрольных сумм частей, в том числе после перезапуска.
+	 */
+	@Test
+	public void testChunkChecksum() throws Exception {
+		byte[] content = new byte[CHUNK_SIZE * 3];
+		new Random(4).nextBytes(content);
+		String uploadId = initUploadManager().begin(FILE_NAME, null, content.length).getUploadId();
+		managers.get(0).write(uploadId, CHUNK_SIZE, new ByteArrayInputStream(content, CHUNK_SIZE, CHUNK_SIZE * 2));
+
+		UploadManager restarted = initUploadManager();
+		restarted.write(uploadId, 0, new ByteArrayInputStream(content, 0, CHUNK_SIZE));
+		assertEquals(ChecksumStore.compute(content), restarted.complete(uploadId).getChecksum());
+		restarted.release(uploadId);
+
+		UploadManager overwritten = initUploadManager();
+		overwritten.write(uploadId, CHUNK_SIZE / 2, new ByteArrayInputStream(content, CHUNK_SIZE / 2, CHUNK_SIZE));
+		UploadManager.CompletedUpload upload = overwritten.complete(uploadId);
+		assertNull(upload.getChecksum());
+		assertArrayEquals(content, Files.readAllBytes(upload.getData()));
+	}
+
+	/**
+	 * Тестирование отклонения частей, записываемых во время и после завершения загрузки.
+	 */
+	@Test
+	public void testWriteDuringComplete() throws Exception {
+		UploadManager uploadManager = initUploadManager();
+		StorageService storageService = initStorageService(uploadManager);
+		byte[] content = new byte[CHUNK_SIZE * CHUNK_COUNT];
+		new Random(3).nextBytes(content);
+		String uploadId = storageService.beginUpload(FILE_NAME, null, content.length).getUploadId();
+		storageService.writeChunk(uploadId, 0, new ByteArrayInputStream(content));
+
+		uploadManager.complete(uploadId);
+		assertThrows(IllegalStateException.class,
+				() -> storageService.writeChunk(uploadId, 0, new ByteArrayInputStream(new byte[CHUNK_SIZE])));
+		assertThrows(IllegalStateException.class, () -> storageService.abortUpload(uploadId));
+		uploadManager.release(uploadId);
+
+		AtomicBoolean completed = new AtomicBoolean();
+		AtomicInteger lateWrites = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> writers = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				int chunk = i;
+				writers.add(executor.submit(() -> {
+					while (true) {
+						boolean afterComplete = completed.get();
+						try {
+							storageService.writeChunk(uploadId, chunk * CHUNK_SIZE,
+									new ByteArrayInputStream(content, chunk * CHUNK_SIZE, CHUNK_SIZE));
+							if (afterComplete) {
+								lateWrites.incrementAndGet();
+							}
+						} catch (IllegalStateException | IOException e) {
+							if (afterComplete) {
+								return null;
+							}
+						}
+					}
+				}));
+			}
+			Thread.sleep(50);
+			FileDTO fileDTO = storageService.completeUpload(uploadId);
+			completed.set(true);
+			for (Future<?> writer : writers) {
+				writer.get();
+			}
+			assertEquals(content.length, fileDTO.getSize());
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(0, lateWrites.get());
+		assertArrayEquals(content, storageService.read(Paths.get(FILE_NAME)));
+		assertThrows(IOException.class, () -> storageService.getUpload(uploadId));
+		try (var uploads = Files.list(Path.of(UPLOAD_DIRECTORY))) {
+			assertFalse(uploads.findAny().isPresent());
+		}
+	}
+
+	/**
+	 * Тестирование того, что загрузка, в которую записывается часть, не удаляется как заброшенная.
+	 */
+	@Test
+	public void testExpireDuringWrite() throws Exception {
+		UploadManager uploadManager = initUploadManager();
+		String uploadId = uploadManager.begin(FILE_NAME, null, CHUNK_SIZE).getUploadId();
+		CountDownLatch reading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		InputStream data = new InputStream() {
+			private int position;
+
+			@Override
+			public int read() throws IOException {
+				reading.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					throw new IOException(e);
+				}
+				return position < CHUNK_SIZE ? position++ & 0xFF : -1;
+			}
+		};
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<Long> writer = executor.submit(() -> uploadManager.write(uploadId, 0, data));
+			reading.await();
+			uploadManager.expire();
+			release.countDown();
+			assertEquals(CHUNK_SIZE, writer.get());
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(CHUNK_SIZE, uploadManager.getStatus(uploadId).getReceived());
+
+		uploadManager.expire();
+		assertThrows(IOException.class, () -> uploadManager.getStatus(uploadId));
+	}
+
+	/**
+	 * Тестирование отмены загрузки.
+	 */
+	@Test
+	public void testAbortUpload() throws Exception {
+		StorageService storageService = initStorageService(initUploadManager());
+		String uploadId = storageService.beginUpload(FILE_NAME, null, CHUNK_SIZE).getUploadId();
+		storageService.abortUpload(uploadId);
+		assertThrows(IOException.class, () -> storageService.getUpload(uploadId));
+		assertThrows(IllegalStateException.class,
+				() -> initStorageService(null).beginUpload(FILE_NAME, null, CHUNK_SIZE));
+	}
+}
@@ -0,0 +1,126 @@
+package ru.isin.starter.filesystem.service.volume;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+import ru.isin.starter.filesystem.domain.RebalanceReportDTO;
+import ru.isin.starter.filesystem.properties.HashProperties;
+import ru.isin.starter.filesystem.properties.StorageProperties;
+import ru.isin.starter.filesystem.service.HashServiceImpl;
+import ru.isin.starter.filesystem.service.StorageService;
+import ru.isin.starter.filesystem.service.StorageServiceImpl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Тестирование работы {@link VolumeRebalancer} и {@link VolumeSelector}.
+ *
+ * @author Kolomiets Alexander (19.10.2026)
+ */
+class VolumeRebalancerTest {
+	private static final String ROOT_DIRECTORY = "src/test/volumes";
+	private static final String FIRST_VOLUME = ROOT_DIRECTORY + "/first";
+	private static final String SECOND_VOLUME = ROOT_DIRECTORY + "/second";
+	private static final String THIRD_VOLUME = ROOT_DIRECTORY + "/third";
+	private static final String HASHING_ALGORITHM = "MD5";
+	private static final int DIRECTORY_NESTING_LEVEL = 2;
+	private static final int DIRECTORY_NAME_LENGTH = 2;
+	private static final int MIN_FILE_NAME_LENGTH = 3;
+	private static final int FILE_COUNT = 200;
+	private static final String CONTENT_TYPE = "text";
+
+	/**
+	 * Инициализация тестового экзмеляра {@link StorageProperties}.
+	 *
+	 * @param volumes корневые директории томов
+	 * @return сущность для тестов
+	 */
+	private StorageProperties initStorageProperties(String... volumes) {
+		List<StorageProperties.Volume> volumeList = new ArrayList<>();
+		for (String volume : volumes) {
+			volumeList.add(new StorageProperties.Volume(volume, 1));
+		}
+		return new StorageProperties(
+				ROOT_DIRECTORY,
+				DIRECTORY_NESTING_LEVEL,
+				DIRECTORY_NAME_LENGTH,
+				MIN_FILE_NAME_LENGTH,
+				volumeList);
+	}
+
+	/**
+	 * Инициализация тестового экзмеляра {@link StorageServiceImpl}.
+	 *
+	 * @param storageProperties параметры сохранения
+	 * @return сущность для тестов
+	 */
+	private StorageService initStorageService(StorageProperties storageProperties) {
+		return new StorageServiceImpl(new HashServiceImpl(new HashProperties(HASHING_ALGORITHM)), storageProperties);
+	}
+
+	/**
+	 * Удаление созданных директорий и файлов.
+	 */
+	@AfterEach
+	public void clear() throws IOException {
+		FileSystemUtils.deleteRecursively(Path.of(ROOT_DIRECTORY));
+	}
+
+	/**
+	 * Тестирование того, что при добавлении тома переезжает только часть файлов, и только на новый том.
+	 */
+	@Test
+	public void testMinimalRelocation() {
+		VolumeSelector before = new VolumeSelector(initStorageProperties(FIRST_VOLUME, SECOND_VOLUME).getVolumes());
+		VolumeSelector after = new VolumeSelector(
+				initStorageProperties(FIRST_VOLUME, SECOND_VOLUME, THIRD_VOLUME).getVolumes());
+
+		int relocated = 0;
+		for (int i = 0; i < FILE_COUNT; i++) {
+			String key = "key" + i;
+			Path previous = before.select(key);
+			Path current = after.select(key);
+			if (!previous.equals(current)) {
+				assertEquals(Paths.get(THIRD_VOLUME), current);
+				relocated++;
+			}
+		}
+		assertTrue(relocated > 0);
+		assertTrue(relocated < FILE_COUNT / 2);
+	}
+
+	/**
+	 * Тестирование перераспределения файлов после добавления тома.
+	 */
+	@Test
+	public void testRebalance() throws IOException {
+		StorageService singleVolume = initStorageService(initStorageProperties(FIRST_VOLUME));
+		for (int i = 0; i < FILE_COUNT; i++) {
+			singleVolume.save(new ByteArrayInputStream(("content" + i).getBytes()), "file" + i, CONTENT_TYPE);
+		}
+
+		StorageProperties storageProperties = initStorageProperties(FIRST_VOLUME, SECOND_VOLUME);
+		StorageService twoVolumes = initStorageService(storageProperties);
+		assertArrayEquals("content0".getBytes(), twoVolumes.read(Paths.get("file0")));
+
+		RebalanceReportDTO report = new VolumeRebalancer(storageProperties, twoVolumes).rebalance(4);
+
+		assertEquals(FILE_COUNT, report.getScanned());
+		assertEquals(0, report.getFailed());
+		assertTrue(report.getMoved() > 0 && report.getMoved() < FILE_COUNT);
+		for (int i = 0; i < FILE_COUNT; i++) {
+			Path fileName = Paths.get("file" + i);
+			assertTrue(twoVolumes.getActualPath(fileName).toFile().exists());
+			assertArrayEquals(("content" + i).getBytes(), twoVolumes.read(fileName));
+		}
+	}
+}